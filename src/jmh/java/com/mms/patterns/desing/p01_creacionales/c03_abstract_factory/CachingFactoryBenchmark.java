@@ -0,0 +1,64 @@
+package com.mms.patterns.desing.p01_creacionales.c03_abstract_factory;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * ! Benchmark JMH de las fábricas con caché de AbstractFactoryPattern_05
+ *
+ * Compara un pedido (createHamburger() + createDrink(), o createVehicle() + createEngine()) en la
+ * fábrica original y en la envuelta con caché. Los productos van al Blackhole para que el JIT no
+ * elimine las asignaciones.
+ *
+ * - Con -prof gc, gc.alloc.rate.norm da los bytes asignados por pedido: con caché deben ser 0.
+ *
+ * mvn -Pbench package
+ * java -jar target/benchmarks.jar CachingFactoryBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachingFactoryBenchmark {
+
+    private final RestaurantFactory restaurant = new FastFoodRestaurantFactory();
+    private final RestaurantFactory cachingRestaurant = new CachingRestaurantFactory(new FastFoodRestaurantFactory());
+    private final VehicleFactory vehicles = new ElectricVehicleFactory();
+    private final VehicleFactory cachingVehicles = new CachingVehicleFactory(new ElectricVehicleFactory());
+
+    @Benchmark
+    public void restaurantOriginal(Blackhole bh) {
+        bh.consume(restaurant.createHamburger());
+        bh.consume(restaurant.createDrink());
+    }
+
+    @Benchmark
+    public void restaurantCaching(Blackhole bh) {
+        bh.consume(cachingRestaurant.createHamburger());
+        bh.consume(cachingRestaurant.createDrink());
+    }
+
+    @Benchmark
+    public void vehicleOriginal(Blackhole bh) {
+        bh.consume(vehicles.createVehicle());
+        bh.consume(vehicles.createEngine());
+    }
+
+    @Benchmark
+    public void vehicleCaching(Blackhole bh) {
+        bh.consume(cachingVehicles.createVehicle());
+        bh.consume(cachingVehicles.createEngine());
+    }
+}
@@ -0,0 +1,61 @@
+package com.mms.patterns.desing.p01_creacionales.c04_prototype;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ! Benchmark JMH del clon copy-on-write de PrototypePattern_03
+ *
+ * Compara Pokemon.clone(), que comparte la lista de ataques, con crear un Pokemon nuevo que copia la
+ * lista completa, para listas de 10 a 10.000 ataques.
+ *
+ * - Con -prof gc, gc.alloc.rate.norm da los bytes por clon: con copy-on-write no depende del tamaño.
+ *
+ * mvn -Pbench package
+ * java -jar target/benchmarks.jar CopyOnWriteCloneBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CopyOnWriteCloneBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int attacks;
+
+    private Pokemon prototype;
+
+    @Setup
+    public void setUp() {
+        List<String> list = new ArrayList<>(attacks);
+        for (int i = 0; i < attacks; i++) {
+            list.add("Ataque " + i);
+        }
+        prototype = new Pokemon("Mew", "Psíquico", 50, list);
+    }
+
+    @Benchmark
+    public Pokemon fullCopy() {
+        return new Pokemon(prototype.getName(), prototype.getType(), prototype.getLevel(), prototype.getAttacks());
+    }
+
+    @Benchmark
+    public Pokemon copyOnWrite() {
+        return prototype.clone();
+    }
+}
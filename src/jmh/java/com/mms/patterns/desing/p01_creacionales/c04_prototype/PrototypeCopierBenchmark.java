@@ -0,0 +1,115 @@
+package com.mms.patterns.desing.p01_creacionales.c04_prototype;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ! Benchmark JMH del copiador genérico de PrototypePattern_06
+ *
+ * Costo por copia de un Pokémon con 10 ataques:
+ *
+ * - handClone: el clone() escrito a mano.
+ * - copierShallow / copierDeep: PrototypeCopier en cada modo.
+ * - reflection: la misma rutina que la copia profunda (clone() y después cada atributo no primitivo),
+ *   pero con Field.get/Field.set.
+ * - serialization: escribir el objeto a bytes y volver a leerlo.
+ * - Con -prof gc, gc.alloc.rate.norm da los bytes por copia.
+ *
+ * mvn -Pbench package
+ * java -jar target/benchmarks.jar PrototypeCopierBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrototypeCopierBenchmark {
+
+    private static final Field[] REFLECTION_FIELDS;
+
+    static {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : Pokemon.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) continue;
+            field.setAccessible(true);
+            fields.add(field);
+        }
+        REFLECTION_FIELDS = fields.toArray(Field[]::new);
+    }
+
+    private Pokemon prototype;
+
+    @Setup
+    public void setUp() {
+        List<String> attacks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) attacks.add("Ataque " + i);
+        prototype = new Pokemon("Mew", "Psíquico", 50, attacks);
+    }
+
+    @Benchmark
+    public Pokemon handClone() {
+        return prototype.clone();
+    }
+
+    @Benchmark
+    public Pokemon copierShallow() {
+        return PrototypeCopier.copy(prototype, PrototypeCopier.Mode.SHALLOW);
+    }
+
+    @Benchmark
+    public Pokemon copierDeep() {
+        return PrototypeCopier.copy(prototype, PrototypeCopier.Mode.DEEP);
+    }
+
+    @Benchmark
+    public Pokemon reflection() {
+        try {
+            Pokemon copy = prototype.clone();
+            for (Field field : REFLECTION_FIELDS) {
+                Object value = field.get(prototype);
+                field.set(copy, value instanceof ArrayList<?> list ? new ArrayList<>(list) : value);
+            }
+            return copy;
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Benchmark
+    public Pokemon serialization() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(prototype);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                return (Pokemon) in.readObject();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.mms.patterns.desing.p01_creacionales.c05_inmutabilidad;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ! Benchmark JMH del hash en caché de InmutabilidadPattern_06
+ *
+ * Sobre un archivo de 1 MB:
+ *
+ * - Edited: el hash de un estado recién editado (hash por fragmento en caché) frente a recorrer
+ *   todo el contenido, que es lo que costaba cada hashCode() antes de guardar los hashes. La edición
+ *   y el String del contenido se preparan fuera de la medición, en cada invocación; las dos
+ *   operaciones duran microsegundos o más, así que el costo de ese Setup no distorsiona el resultado.
+ * - Lookup: buscar en un HashMap de 1.000 versiones con la clave que devuelve undo (comparte el
+ *   contenido) o con un estado que tiene una copia del mismo texto.
+ *
+ * mvn -Pbench package
+ * java -jar target/benchmarks.jar StateHashBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateHashBenchmark {
+
+    private static final int FILE_SIZE = 1024 * 1024;
+    private static final int VERSIONS = 1_000;
+    private static final int COPIES = 100;
+
+    @State(Scope.Thread)
+    public static class Edited {
+        private final SplittableRandom random = new SplittableRandom(3);
+        private CodeEditorState base;
+        private CodeEditorState state;
+        private String content;
+
+        @Setup(Level.Trial)
+        public void setUpBase() {
+            base = new CodeEditorState("a".repeat(FILE_SIZE), 0, false);
+            base.hashCode();
+        }
+
+        @Setup(Level.Invocation)
+        public void edit() {
+            int at = random.nextInt(FILE_SIZE - 16);
+            state = base.edit(at, at + 4, "edit", at);
+            content = state.getContent();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Lookup {
+        private final Map<CodeEditorState, Integer> versions = new HashMap<>();
+        private CodeEditorState[] keys;
+        private final CodeEditorState[] copies = new CodeEditorState[COPIES];
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SplittableRandom random = new SplittableRandom(3);
+            CodeEditorHistory history = new CodeEditorHistory();
+            CodeEditorState state = new CodeEditorState("a".repeat(FILE_SIZE), 0, false);
+            history.save(state);
+            versions.put(state, 0);
+            for (int i = 1; i < VERSIONS; i++) {
+                int at = random.nextInt(FILE_SIZE - 16);
+                state = state.edit(at, at + 4, "v" + i, at);
+                history.save(state);
+                versions.put(state, i);
+            }
+            keys = InmutabilidadPattern_06.undoKeys(history, VERSIONS);
+            for (int i = 0; i < COPIES; i++) {
+                CodeEditorState key = keys[i * (VERSIONS / COPIES)];
+                copies[i] = new CodeEditorState(key.getContent(), key.getCursorPosition(), key.isUnsavedChanges());
+                copies[i].hashCode();
+            }
+        }
+    }
+
+    @Benchmark
+    public int cachedHashAfterEdit(Edited edited) {
+        return edited.state.hashCode();
+    }
+
+    @Benchmark
+    public int fullContentHashAfterEdit(Edited edited) {
+        return edited.content.hashCode();
+    }
+
+    @Benchmark
+    public Integer lookupWithUndoKey(Lookup lookup) {
+        return lookup.versions.get(lookup.keys[lookup.next++ % VERSIONS]);
+    }
+
+    @Benchmark
+    public Integer lookupWithCopiedText(Lookup lookup) {
+        return lookup.versions.get(lookup.copies[lookup.next++ % COPIES]);
+    }
+}
@@ -0,0 +1,105 @@
+package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LogLevel;
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LoggerFunction;
+
+import static com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_07.AMOUNTS;
+import static com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_07.ORDERS;
+import static com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_07.TEMPLATE;
+import static com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_07.USERS;
+
+/**
+ * ! Benchmark JMH del log binario de FactoryFunctionPattern_07
+ *
+ * Registra eventos "Pedido {} de {} por {}" como texto "[INFO: fecha] mensaje" y en binario, sobre
+ * una salida que descarta los bytes: se mide el costo de formatear y codificar, no el del disco.
+ * decode mide la reconstrucción del texto de 10.000 eventos ya escritos (resultado por evento).
+ *
+ * - Con -prof gc, gc.alloc.rate.norm da los bytes por evento.
+ *
+ * mvn -Pbench package
+ * java -jar target/benchmarks.jar BinaryLogBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryLogBenchmark {
+
+    private static final int DECODED_EVENTS = 10_000;
+
+    private Writer textOut;
+    private LoggerFunction text;
+    private BinaryLogWriter binaryOut;
+    private LoggerFunction binary;
+    private byte[] encoded;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        textOut = new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream()), 64 * 1024);
+        text = FactoryFunctionPattern_07.textLogger(textOut);
+        binaryOut = new BinaryLogWriter(OutputStream.nullOutputStream());
+        binary = FactoryFunctionPattern_02.createLogger(LogLevel.info, binaryOut);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryLogWriter writer = new BinaryLogWriter(bytes)) {
+            LoggerFunction info = FactoryFunctionPattern_02.createLogger(LogLevel.info, writer);
+            for (int i = 0; i < DECODED_EVENTS; i++) {
+                info.logger(TEMPLATE, ORDERS[i & 1023], USERS[i & 1023], AMOUNTS[i & 1023]);
+            }
+        }
+        encoded = bytes.toByteArray();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        textOut.close();
+        binaryOut.close();
+    }
+
+    @Benchmark
+    public void writeText() {
+        int i = next++ & 1023;
+        text.logger(TEMPLATE, ORDERS[i], USERS[i], AMOUNTS[i]);
+    }
+
+    @Benchmark
+    public void writeBinary() {
+        int i = next++ & 1023;
+        binary.logger(TEMPLATE, ORDERS[i], USERS[i], AMOUNTS[i]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DECODED_EVENTS)
+    public void decode(Blackhole bh) throws IOException {
+        StringBuilder decoded = new StringBuilder(DECODED_EVENTS * 64);
+        bh.consume(BinaryLogDecoder.decode(new ByteArrayInputStream(encoded), decoded));
+        bh.consume(decoded);
+    }
+}
@@ -0,0 +1,86 @@
+package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LogLevel;
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LoggerFunction;
+
+/**
+ * ! Benchmark JMH de un log deshabilitado (FactoryFunctionPattern_05)
+ *
+ * Con el nivel mínimo en warn, llama a un logger de nivel debug con cada variante: el mensaje
+ * armado antes de la llamada, un Supplier, una plantilla con dos argumentos y una comprobación
+ * explícita de isEnabled(). Los argumentos rotan entre 1024 usuarios y pedidos ya creados.
+ *
+ * - Con -prof gc, gc.alloc.rate.norm da los bytes por llamada: solo el mensaje armado antes reserva memoria.
+ *
+ * mvn -Pbench package
+ * java -jar target/benchmarks.jar DisabledLogBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisabledLogBenchmark {
+
+    private final String[] users = new String[1024];
+    private final Object[] orders = new Object[1024];
+
+    private LogLevel previous;
+    private LoggerFunction debug;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < users.length; i++) {
+            users[i] = "usuario-" + i;
+            orders[i] = (long) i * 7919;
+        }
+        previous = FactoryFunctionPattern_02.getMinLevel();
+        FactoryFunctionPattern_02.setMinLevel(LogLevel.warn);
+        debug = FactoryFunctionPattern_02.createLogger(LogLevel.debug);
+    }
+
+    @TearDown
+    public void tearDown() {
+        FactoryFunctionPattern_02.setMinLevel(previous);
+    }
+
+    @Benchmark
+    public void eagerMessage() {
+        int i = next++ & 1023;
+        debug.logger("Pedido " + orders[i] + " de " + users[i]);
+    }
+
+    @Benchmark
+    public void supplier() {
+        int i = next++ & 1023;
+        debug.logger(() -> "Pedido " + orders[i] + " de " + users[i]);
+    }
+
+    @Benchmark
+    public void templateTwoArguments() {
+        int i = next++ & 1023;
+        debug.logger("Pedido {} de {}", orders[i], users[i]);
+    }
+
+    @Benchmark
+    public void isEnabledGuard() {
+        int i = next++ & 1023;
+        if (debug.isEnabled()) debug.logger("Pedido " + orders[i] + " de " + users[i]);
+    }
+}
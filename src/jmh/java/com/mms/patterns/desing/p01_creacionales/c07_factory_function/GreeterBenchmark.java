@@ -0,0 +1,86 @@
+package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_01.GreeterFunction;
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_01.Language;
+
+/**
+ * ! Benchmark JMH de los saludos de FactoryFunctionPattern_03
+ *
+ * Saluda a 200.000 usuarios escribiendo en una salida configurada como System.out (con buffer y
+ * vaciado en cada println) que descarta los datos. Los resultados son por saludo.
+ *
+ * - legacy: HashMap con las plantillas y String.format en cada saludo.
+ * - templateGreet: plantilla precalculada, un println por nombre.
+ * - templateGreetAll: plantilla precalculada, un solo buffer para todo el lote.
+ * - Con -prof gc, gc.alloc.rate.norm da los bytes por saludo.
+ *
+ * mvn -Pbench package
+ * java -jar target/benchmarks.jar GreeterBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(GreeterBenchmark.USERS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GreeterBenchmark {
+
+    static final int USERS = 200_000;
+
+    private List<String> names;
+    private PrintStream discard;
+    private GreeterFunction legacy;
+    private GreeterFunction greeter;
+
+    @Setup
+    public void setUp() {
+        names = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) names.add("usuario-" + i);
+
+        // Igual que System.out: con buffer y autoflush, pero sin destino
+        discard = new PrintStream(new BufferedOutputStream(OutputStream.nullOutputStream()), true);
+        legacy = FactoryFunctionPattern_03.createLegacyGreeter(Language.es, discard);
+        greeter = FactoryFunctionPattern_01.createGreeter(Language.es, discard);
+    }
+
+    @TearDown
+    public void tearDown() {
+        discard.close();
+    }
+
+    @Benchmark
+    public void legacy() {
+        for (String name : names) legacy.greet(name);
+    }
+
+    @Benchmark
+    public void templateGreet() {
+        for (String name : names) greeter.greet(name);
+    }
+
+    @Benchmark
+    public void templateGreetAll() {
+        greeter.greetAll(names);
+    }
+}
@@ -0,0 +1,205 @@
+package com.mms.patterns.desing.p02_estructurales.adapter_files;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LocalAdapterRegistry.Ordering;
+
+/**
+ * ! Benchmark JMH de los adaptadores de logs
+ *
+ * Base común: cada adaptador es una subclase que solo indica cómo crearlo a partir de la salida
+ * donde debe escribir. Para medir otro adaptador basta con agregar una subclase.
+ *
+ * - LocalLogger: println directo en la salida.
+ * - LocalAdapter: java.util.logging con el handler asíncrono.
+ *
+ * Cada uno se mide con 1, 8 y 32 hilos, escribiendo en una salida que descarta todo (NULL) o en un
+ * archivo temporal (FILE). Cada adaptador recibe su propia salida: no se toca System.out.
+ *
+ * - Throughput da mensajes por microsegundo; SampleTime da la distribución de latencias (p50, p99, p99.9).
+ * - Con -prof gc se ve la asignación por mensaje (gc.alloc.rate.norm).
+ * - Si el adaptador creado implementa Flushable o AutoCloseable, se vacía al final de cada iteración
+ *   y se cierra al final de la prueba. La cola de LocalAdapter es acotada: cuando se llena, el productor
+ *   espera. Así el throughput medido es el de régimen estable y no el de llenar una cola sin límite.
+ *
+ * mvn -Pbench package
+ * java -jar target/benchmarks.jar LoggerAdapterBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class LoggerAdapterBenchmark {
+
+    private static final String MESSAGE = "Pedido 1234 procesado en 12 ms";
+
+    @Param({"NULL", "FILE"})
+    public String target;
+
+    private final Function<PrintStream, ILoggerAdapter> factory;
+
+    private Path file;
+    private PrintStream out;
+    private ILoggerAdapter logger;
+
+    /**
+     * @param factory Crea el adaptador a medir sobre la salida que le indica la prueba
+     */
+    protected LoggerAdapterBenchmark(Function<PrintStream, ILoggerAdapter> factory) {
+        this.factory = factory;
+    }
+
+    public static class LocalLoggerBenchmark extends LoggerAdapterBenchmark {
+        public LocalLoggerBenchmark() {
+            super(out -> adapt(new LocalLogger("bench", out)));
+        }
+    }
+
+    public static class LocalAdapterBenchmark extends LoggerAdapterBenchmark {
+        public LocalAdapterBenchmark() {
+            super(out -> new RegistryAdapter(new LocalAdapterRegistry(out, Ordering.PER_FILE, 8192), "bench"));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (target.equals("FILE")) {
+            file = Files.createTempFile("logger-bench", ".log");
+            out = new PrintStream(new BufferedOutputStream(new FileOutputStream(file.toFile()), 64 * 1024), false);
+        } else {
+            out = new PrintStream(OutputStream.nullOutputStream(), false);
+        }
+        logger = factory.apply(out);
+    }
+
+    // Lo pendiente se escribe dentro de cada iteración y no se arrastra a la siguiente
+    @TearDown(Level.Iteration)
+    public void flush() throws IOException {
+        if (logger instanceof Flushable flushable) flushable.flush();
+        out.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (logger instanceof AutoCloseable closeable) closeable.close();
+        out.close();
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("No se pudo borrar " + file, ex);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void oneThread() {
+        logger.writeLog(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void eightThreads() {
+        logger.writeLog(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void thirtyTwoThreads() {
+        logger.writeLog(MESSAGE);
+    }
+
+    // LocalLogger tiene los mismos métodos pero no implementa ILoggerAdapter
+    private static ILoggerAdapter adapt(LocalLogger logger) {
+        return new ILoggerAdapter() {
+            @Override
+            public String getFile() {
+                return logger.getFile();
+            }
+
+            @Override
+            public void writeLog(String msg) {
+                logger.writeLog(msg);
+            }
+
+            @Override
+            public void writeWarning(String msg) {
+                logger.writeWarning(msg);
+            }
+
+            @Override
+            public void writeError(String msg) {
+                logger.writeError(msg);
+            }
+        };
+    }
+
+    // LocalAdapter junto con su registro, para que la prueba pueda vaciarlo y cerrarlo
+    private static final class RegistryAdapter implements ILoggerAdapter, Flushable, AutoCloseable {
+        private final LocalAdapterRegistry registry;
+        private final LocalAdapter adapter;
+
+        RegistryAdapter(LocalAdapterRegistry registry, String file) {
+            this.registry = registry;
+            this.adapter = registry.adapter(file);
+        }
+
+        @Override
+        public String getFile() {
+            return adapter.getFile();
+        }
+
+        @Override
+        public void writeLog(String msg) {
+            adapter.writeLog(msg);
+        }
+
+        @Override
+        public void writeWarning(String msg) {
+            adapter.writeWarning(msg);
+        }
+
+        @Override
+        public void writeError(String msg) {
+            adapter.writeError(msg);
+        }
+
+        @Override
+        public void flush() {
+            registry.flush();
+        }
+
+        @Override
+        public void close() {
+            registry.close();
+        }
+    }
+}
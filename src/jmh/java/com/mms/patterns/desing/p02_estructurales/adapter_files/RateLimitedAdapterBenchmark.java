@@ -0,0 +1,98 @@
+package com.mms.patterns.desing.p02_estructurales.adapter_files;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ! Benchmark JMH de RateLimitedAdapter
+ *
+ * Todas las llamadas usan la misma clave, así que con 8 hilos todos compiten por el mismo balde.
+ * El adaptador decorado descarta los mensajes para medir solo el decorador.
+ *
+ * - passing: mensajes que pasan (límite muy alto); cuesta un getAndAdd sobre el balde.
+ * - suppressed: mensajes suprimidos (1 por segundo); se suma y se resta del balde y se cuenta.
+ * - direct: el adaptador sin decorar, como referencia.
+ * - nanoTime: System.nanoTime, lo que el decorador se ahorra con CoarseClock.
+ * - Con -prof gc, gc.alloc.rate.norm debe dar 0 bytes por llamada.
+ *
+ * mvn -Pbench package
+ * java -jar target/benchmarks.jar RateLimitedAdapterBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitedAdapterBenchmark {
+
+    private static final String MESSAGE = "Conexión rechazada por el servidor";
+
+    private final ILoggerAdapter discard = new ILoggerAdapter() {
+        @Override
+        public String getFile() {
+            return "descartado";
+        }
+
+        @Override
+        public void writeLog(String msg) {
+        }
+
+        @Override
+        public void writeWarning(String msg) {
+        }
+
+        @Override
+        public void writeError(String msg) {
+        }
+    };
+
+    private final RateLimitedAdapter passing = new RateLimitedAdapter(discard, 1e12, 1_000_000);
+    private final RateLimitedAdapter suppressing = new RateLimitedAdapter(discard, 1, 1);
+
+    @Benchmark
+    @Threads(1)
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void direct() {
+        discard.writeError(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void passingOneThread() {
+        passing.writeError(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void passingEightThreads() {
+        passing.writeError(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void suppressedOneThread() {
+        suppressing.writeError(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void suppressedEightThreads() {
+        suppressing.writeError(MESSAGE);
+    }
+}
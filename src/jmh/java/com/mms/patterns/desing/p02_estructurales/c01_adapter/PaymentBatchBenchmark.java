@@ -0,0 +1,86 @@
+package com.mms.patterns.desing.p02_estructurales.c01_adapter;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ! Benchmark JMH de los pagos por lotes de AdapterPattern_08
+ *
+ * Procesa la misma liquidación de 300.000 pagos pago por pago con processPayment(Double) y por lotes
+ * con processPayments(long[]) en cada proveedor. Los resultados son por pago.
+ *
+ * - El pago por pago imprime cada pago en una salida que descarta todo; no se toca System.out.
+ * - Con -prof gc, gc.alloc.rate.norm da los bytes por pago.
+ *
+ * mvn -Pbench package
+ * java -jar target/benchmarks.jar PaymentBatchBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(PaymentBatchBenchmark.PAYMENTS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentBatchBenchmark {
+
+    static final int PAYMENTS = 300_000;
+
+    private long[] cents;
+    private PrintStream discard;
+    private PaymentProcessor paypalSingle;
+    private PaymentProcessor paypal;
+    private PaymentProcessor stripe;
+    private PaymentProcessor mercadoPago;
+
+    @Setup
+    public void setUp() {
+        cents = AdapterPattern_08.settlement(PAYMENTS);
+        discard = new PrintStream(OutputStream.nullOutputStream());
+        paypalSingle = new PayPalAdapter(new PayPalService(discard));
+        paypal = new PayPalAdapter(new PayPalService());
+        stripe = new StripeAdapter(new StripeService());
+        mercadoPago = new MercadoPagoAdapter(new MercadoPagoService());
+    }
+
+    @TearDown
+    public void tearDown() {
+        discard.close();
+    }
+
+    @Benchmark
+    public void paypalOneByOne() {
+        for (long amount : cents) {
+            paypalSingle.processPayment(amount / 100.0);
+        }
+    }
+
+    @Benchmark
+    public PaymentBatchResult paypalBatch() {
+        return paypal.processPayments(cents);
+    }
+
+    @Benchmark
+    public PaymentBatchResult stripeBatch() {
+        return stripe.processPayments(cents);
+    }
+
+    @Benchmark
+    public PaymentBatchResult mercadoPagoBatch() {
+        return mercadoPago.processPayments(cents);
+    }
+}
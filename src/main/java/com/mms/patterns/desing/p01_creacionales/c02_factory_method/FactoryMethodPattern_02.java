@@ -32,6 +32,9 @@ import java.util.Scanner;
 // Producto abstracto: interfaz para reportes
 interface Report {
     void generate();
+
+    // Contenido del reporte sin imprimirlo, útil para reutilizarlo (por ejemplo, desde una caché)
+    String render();
 }
 
 
@@ -40,7 +43,12 @@ class SalesReport implements Report {
 
     @Override
     public void generate() {
-        System.out.println("Generando reporte de ventas...");
+        System.out.println(render());
+    }
+
+    @Override
+    public String render() {
+        return "Generando reporte de ventas...";
     }
 }
 
@@ -50,7 +58,12 @@ class InventoryReport implements Report {
 
     @Override
     public void generate() {
-        System.out.println("Generando reporte de inventario...");
+        System.out.println(render());
+    }
+
+    @Override
+    public String render() {
+        return "Generando reporte de inventario...";
     }
 }
 
@@ -0,0 +1,475 @@
+/**
+ * ! Factory Method con caché de resultados:
+ * El creador (ReportFactory) decide qué reporte se construye; aquí agregamos un creador
+ * que, antes de generar, consulta una caché versionada de resultados.
+ *
+ * * Es útil cuando el mismo reporte se solicita muchas veces con los mismos datos
+ * * (por ejemplo, desde tableros o dashboards) y generarlo es costoso.
+ *
+ * https://refactoring.guru/es/design-patterns/factory-method
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c02_factory_method;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.mms.patterns.desing.utils.Sleep;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+// Clave de la caché: tipo de reporte + parámetros + versión de los datos de origen
+final class ReportKey {
+
+    private final String reportType;
+    private final Map<String, String> params;
+    private final long dataVersion;
+
+    public ReportKey(String reportType, Map<String, String> params, long dataVersion) {
+        this.reportType = Objects.requireNonNull(reportType, "El tipo de reporte no puede ser nulo");
+        // Se ordenan los parámetros para que el orden de inserción no cambie la clave
+        this.params = Collections.unmodifiableMap(new TreeMap<>(params));
+        this.dataVersion = dataVersion;
+    }
+
+    public String getReportType() { return reportType; }
+    public Map<String, String> getParams() { return params; }
+    public long getDataVersion() { return dataVersion; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReportKey that = (ReportKey) o;
+        return dataVersion == that.dataVersion &&
+                reportType.equals(that.reportType) &&
+                params.equals(that.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(reportType, params, dataVersion);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuffer sb = new StringBuffer("ReportKey{");
+        sb.append("reportType='").append(reportType).append('\'');
+        sb.append(", params=").append(params);
+        sb.append(", dataVersion=").append(dataVersion);
+        sb.append('}');
+        return sb.toString();
+    }
+}
+
+
+// Versión de los datos de origen por tipo de reporte; cambiarla invalida los resultados anteriores
+class ReportDataVersions {
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long current(String reportType) {
+        return versions.computeIfAbsent(reportType, type -> new AtomicLong()).get();
+    }
+
+    // Se llama cuando cambian los datos de origen (por ejemplo, al registrar una venta)
+    public long bump(String reportType) {
+        return versions.computeIfAbsent(reportType, type -> new AtomicLong()).incrementAndGet();
+    }
+}
+
+
+// Resultado almacenado en la caché: en memoria, o en disco si es demasiado grande
+final class CachedReportEntry {
+
+    private final String content;
+    private final Path spillFile;
+    // Protegidos por el monitor de la entrada: el archivo se borra cuando ya salió de la caché y nadie lo lee
+    private int readers;
+    private boolean discarded;
+
+    private CachedReportEntry(String content, Path spillFile) {
+        this.content = content;
+        this.spillFile = spillFile;
+    }
+
+    static CachedReportEntry inMemory(String content) {
+        return new CachedReportEntry(content, null);
+    }
+
+    static CachedReportEntry onDisk(Path spillFile) {
+        return new CachedReportEntry(null, spillFile);
+    }
+
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    // Registra un lector antes de read(); devuelve false si la entrada ya se descartó
+    public boolean pin() {
+        if (spillFile == null) return true;
+        synchronized (this) {
+            if (discarded) return false;
+            readers++;
+            return true;
+        }
+    }
+
+    // Lee el contenido y libera el registro hecho con pin()
+    public String read() {
+        if (spillFile == null) return content;
+        try {
+            return Files.readString(spillFile, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo leer el reporte desde " + spillFile, ex);
+        } finally {
+            boolean delete;
+            synchronized (this) {
+                delete = --readers == 0 && discarded;
+            }
+            if (delete) deleteFile();
+        }
+    }
+
+    // Libera el archivo en disco cuando la entrada sale de la caché (o al terminar el último lector)
+    public void discard() {
+        if (spillFile == null) return;
+        boolean delete;
+        synchronized (this) {
+            discarded = true;
+            delete = readers == 0;
+        }
+        if (delete) deleteFile();
+    }
+
+    private void deleteFile() {
+        try {
+            Files.deleteIfExists(spillFile);
+        } catch (IOException ex) {
+            spillFile.toFile().deleteOnExit();
+        }
+    }
+}
+
+
+/**
+ * Caché de reportes acotada por cantidad de entradas (LRU).
+ *
+ * - Un fallo de caché dispara una sola generación por clave (single-flight):
+ *   los demás hilos que piden la misma clave esperan ese mismo resultado.
+ * - Los resultados que superan {@code spillThreshold} caracteres se guardan en disco
+ *   y solo se conserva en memoria la ruta del archivo. Cada lectura registra la entrada antes de
+ *   soltar el lock, así que un desalojo simultáneo no borra el archivo mientras se lee.
+ */
+class ReportCache {
+
+    private final int maxEntries;
+    private final int spillThreshold;
+    private Path spillDir;
+
+    // LinkedHashMap en orden de acceso: la entrada más antigua es la menos usada
+    private final LinkedHashMap<ReportKey, CachedReportEntry> entries;
+    // Entradas quitadas de la caché, protegidas por el lock de entries; se descartan después de soltarlo
+    private final List<CachedReportEntry> removed = new ArrayList<>();
+    private final Map<ReportKey, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong spills = new AtomicLong();
+
+    public ReportCache(int maxEntries, int spillThreshold) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("La caché debe admitir al menos una entrada");
+        }
+        this.maxEntries = maxEntries;
+        this.spillThreshold = spillThreshold;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ReportKey, CachedReportEntry> eldest) {
+                if (size() > ReportCache.this.maxEntries) {
+                    removed.add(eldest.getValue());
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve el reporte cacheado para la clave o lo genera con {@code loader}.
+     *
+     * @param key    Tipo, parámetros y versión de datos del reporte
+     * @param loader Generación real del reporte, solo se ejecuta en un fallo de caché
+     * @return Contenido del reporte
+     */
+    public String get(ReportKey key, Supplier<String> loader) {
+        CachedReportEntry entry = lookup(key);
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry.read();
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            // Otro hilo ya está generando este reporte: se espera su resultado
+            try {
+                return running.join();
+            } catch (CompletionException ex) {
+                // Se relanza el mismo error que recibió el hilo que generaba el reporte
+                if (ex.getCause() instanceof RuntimeException cause) throw cause;
+                throw ex;
+            }
+        }
+
+        try {
+            // Puede que otro hilo haya terminado justo antes de registrarnos
+            entry = lookup(key);
+            String content;
+            if (entry != null) {
+                content = entry.read();
+            } else {
+                loads.incrementAndGet();
+                content = loader.get();
+                store(key, content);
+            }
+            mine.complete(content);
+            return content;
+        } catch (RuntimeException | Error ex) {
+            // Los hilos que esperan en running.join() reciben el mismo error
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Elimina todas las entradas de un tipo de reporte con versiones anteriores a la indicada
+    public void evictOlderThan(String reportType, long dataVersion) {
+        List<CachedReportEntry> stale;
+        synchronized (entries) {
+            entries.entrySet().removeIf(e -> {
+                ReportKey key = e.getKey();
+                boolean old = key.getReportType().equals(reportType) && key.getDataVersion() < dataVersion;
+                if (old) {
+                    removed.add(e.getValue());
+                    evictions.incrementAndGet();
+                }
+                return old;
+            });
+            stale = takeRemoved();
+        }
+        discardAll(stale);
+    }
+
+    // Devuelve la entrada ya registrada con pin() (el llamador hace read()), o null si no está
+    private CachedReportEntry lookup(ReportKey key) {
+        synchronized (entries) {
+            CachedReportEntry entry = entries.get(key);
+            return entry != null && entry.pin() ? entry : null;
+        }
+    }
+
+    // Debe llamarse con el lock de entries tomado
+    private List<CachedReportEntry> takeRemoved() {
+        if (removed.isEmpty()) return List.of();
+        List<CachedReportEntry> taken = new ArrayList<>(removed);
+        removed.clear();
+        return taken;
+    }
+
+    // Borrar archivos es E/S: se hace sin el lock de entries
+    private static void discardAll(List<CachedReportEntry> discarded) {
+        for (CachedReportEntry entry : discarded) {
+            entry.discard();
+        }
+    }
+
+    private void store(ReportKey key, String content) {
+        CachedReportEntry entry = content.length() > spillThreshold
+                ? spill(content)
+                : CachedReportEntry.inMemory(content);
+
+        List<CachedReportEntry> discarded;
+        synchronized (entries) {
+            CachedReportEntry previous = entries.put(key, entry);
+            if (previous != null) removed.add(previous);
+            discarded = takeRemoved();
+        }
+        discardAll(discarded);
+    }
+
+    private CachedReportEntry spill(String content) {
+        try {
+            synchronized (this) {
+                if (spillDir == null) {
+                    spillDir = Files.createTempDirectory("report-cache");
+                    spillDir.toFile().deleteOnExit();
+                }
+            }
+            Path file = Files.createTempFile(spillDir, "report-", ".txt");
+            file.toFile().deleteOnExit();
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+            spills.incrementAndGet();
+            return CachedReportEntry.onDisk(file);
+        } catch (IOException ex) {
+            // Si el disco falla, el reporte se conserva en memoria
+            return CachedReportEntry.inMemory(content);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getLoads() { return loads.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public long getSpills() { return spills.get(); }
+
+    @Override
+    public String toString() {
+        final StringBuffer sb = new StringBuffer("ReportCache{");
+        sb.append("size=").append(size());
+        sb.append(", hits=").append(hits);
+        sb.append(", misses=").append(misses);
+        sb.append(", loads=").append(loads);
+        sb.append(", evictions=").append(evictions);
+        sb.append(", spills=").append(spills);
+        sb.append('}');
+        return sb.toString();
+    }
+}
+
+
+// Producto concreto: reporte servido desde la caché
+class CachedReport implements Report {
+
+    private final String content;
+
+    public CachedReport(String content) {
+        this.content = content;
+    }
+
+    @Override
+    public void generate() {
+        System.out.println(content);
+    }
+
+    @Override
+    public String render() {
+        return content;
+    }
+}
+
+
+// Creador concreto: consulta la caché antes de delegar en la fábrica real
+class CachedReportFactory extends ReportFactory {
+
+    private final String reportType;
+    private final Map<String, String> params;
+    private final ReportFactory delegate;
+    private final ReportCache cache;
+    private final ReportDataVersions versions;
+
+    public CachedReportFactory(String reportType, Map<String, String> params, ReportFactory delegate,
+                               ReportCache cache, ReportDataVersions versions) {
+        this.reportType = reportType;
+        this.params = new TreeMap<>(params);
+        this.delegate = delegate;
+        this.cache = cache;
+        this.versions = versions;
+    }
+
+    @Override
+    protected Report crearReport() {
+        ReportKey key = new ReportKey(reportType, params, versions.current(reportType));
+        String content = cache.get(key, () -> delegate.crearReport().render());
+        return new CachedReport(content);
+    }
+}
+
+
+/**
+ * Clase demostrativa del patrón Factory Method con caché de resultados.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Imagina un tablero que pide el mismo reporte de ventas cada pocos segundos desde varios hilos.
+ * La fábrica con caché genera el reporte una sola vez por versión de datos; cuando llegan
+ * nuevas ventas se incrementa la versión y el siguiente pedido vuelve a generarlo.
+ */
+public class FactoryMethodPattern_03 {
+
+    public static void main(String[] args) throws InterruptedException {
+        ReportCache cache = new ReportCache(2, 64 * 1024);
+        ReportDataVersions versions = new ReportDataVersions();
+
+        // Fábrica "lenta" que simula consultas costosas a la base de datos
+        ReportFactory slowSales = new ReportFactory() {
+            @Override
+            protected Report crearReport() {
+                Sleep.sleep(200);
+                return new SalesReport();
+            }
+        };
+
+        ReportFactory dashboard = new CachedReportFactory(
+                "sales", Map.of("region", "norte"), slowSales, cache, versions);
+
+        System.out.println(GREEN + "8 hilos piden el mismo reporte a la vez:" + RESET);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.submit(dashboard::generateReport);
+        }
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+        System.out.println(BLUE + cache + RESET);
+
+        System.out.println(GREEN + "\nLlegan nuevas ventas (nueva versión de datos):" + RESET);
+        long version = versions.bump("sales");
+        cache.evictOlderThan("sales", version);
+        dashboard.generateReport();
+        dashboard.generateReport();
+        System.out.println(BLUE + cache + RESET);
+
+        System.out.println(GREEN + "\nReporte de inventario grande (se guarda en disco):" + RESET);
+        ReportFactory bigInventory = new ReportFactory() {
+            @Override
+            protected Report crearReport() {
+                String content = "Inventario: " + "producto;".repeat(20_000);
+                return new CachedReport(content);
+            }
+        };
+        ReportFactory inventory = new CachedReportFactory(
+                "inventory", Map.of(), bigInventory, cache, versions);
+        System.out.println("Longitud: " + inventory.crearReport().render().length());
+        System.out.println("Longitud: " + inventory.crearReport().render().length());
+        System.out.println(BLUE + cache + RESET);
+    }
+}
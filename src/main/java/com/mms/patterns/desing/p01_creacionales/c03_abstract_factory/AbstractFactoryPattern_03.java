@@ -0,0 +1,238 @@
+/**
+ * ! Abstract Factory en una cocina concurrente:
+ * Cada pedido usa una fábrica (RestaurantFactory) para obtener una familia consistente
+ * de productos, pero la hamburguesa y la bebida se preparan en estaciones distintas
+ * que trabajan en paralelo.
+ *
+ * * Es útil cuando los productos de una misma familia pueden producirse de forma
+ * * independiente y solo necesitan reunirse al final.
+ *
+ * https://refactoring.guru/es/design-patterns/abstract-factory
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c03_abstract_factory;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.mms.patterns.desing.utils.Sleep;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+// Pedido en curso: se completa cuando terminan sus dos mitades (hamburguesa y bebida)
+class KitchenOrder {
+
+    private final long id;
+    private final RestaurantFactory factory;
+    private final long submittedAt;
+    private final AtomicInteger pendingHalves = new AtomicInteger(2);
+    private final CompletableFuture<Long> done = new CompletableFuture<>();
+
+    public KitchenOrder(long id, RestaurantFactory factory) {
+        this.id = id;
+        this.factory = factory;
+        this.submittedAt = System.nanoTime();
+    }
+
+    public long getId() { return id; }
+    public RestaurantFactory getFactory() { return factory; }
+
+    // Futuro con la latencia del pedido en nanosegundos
+    public CompletableFuture<Long> getDone() { return done; }
+
+    // Devuelve true solo para la estación que termina la última mitad del pedido
+    boolean halfDone() {
+        return pendingHalves.decrementAndGet() == 0;
+    }
+
+    // Tiempo transcurrido desde que se recibió el pedido, en nanosegundos
+    long elapsed() {
+        return System.nanoTime() - submittedAt;
+    }
+
+    void complete(long latency) {
+        done.complete(latency);
+    }
+
+    // Termina el pedido con el error de la estación que falló
+    void fail(RuntimeException error) {
+        done.completeExceptionally(error);
+    }
+
+    boolean isFailed() {
+        return done.isCompletedExceptionally();
+    }
+}
+
+
+/**
+ * Cocina con dos grupos de estaciones conectados por colas:
+ * las parrillas preparan hamburguesas y las estaciones de bebidas las sirven.
+ * Cada pedido se reparte en ambas colas y termina cuando las dos mitades están listas.
+ */
+class Kitchen implements AutoCloseable {
+
+    private final BlockingQueue<KitchenOrder> grillQueue = new LinkedBlockingQueue<>();
+    private final BlockingQueue<KitchenOrder> drinkQueue = new LinkedBlockingQueue<>();
+    private final ExecutorService grillStations;
+    private final ExecutorService drinkStations;
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+    public Kitchen(int grills, int drinkStations, long grillMillis, long pourMillis) {
+        if (grills <= 0 || drinkStations <= 0) {
+            throw new IllegalArgumentException("La cocina necesita al menos una estación de cada tipo");
+        }
+        this.grillStations = Executors.newFixedThreadPool(grills);
+        this.drinkStations = Executors.newFixedThreadPool(drinkStations);
+
+        for (int i = 0; i < grills; i++) {
+            grillStations.submit(() -> station(grillQueue, order -> {
+                order.getFactory().createHamburger().prepare();
+                Sleep.sleep(grillMillis);
+            }));
+        }
+        for (int i = 0; i < drinkStations; i++) {
+            this.drinkStations.submit(() -> station(drinkQueue, order -> {
+                order.getFactory().createDrink().pour();
+                Sleep.sleep(pourMillis);
+            }));
+        }
+    }
+
+    // Bucle de una estación: toma trabajo de su cola hasta que la cocina cierra
+    private void station(BlockingQueue<KitchenOrder> queue, Consumer<KitchenOrder> work) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                KitchenOrder order = queue.take();
+                // La otra mitad de un pedido que ya falló no se prepara
+                if (!order.isFailed()) {
+                    try {
+                        work.accept(order);
+                    } catch (RuntimeException ex) {
+                        // El pedido termina con error y la estación sigue con el siguiente
+                        order.fail(ex);
+                    }
+                }
+                if (order.halfDone() && !order.isFailed()) {
+                    long latency = order.elapsed();
+                    // Se registra antes de completar para que quien espera el pedido ya vea la métrica
+                    latencies.add(latency);
+                    completed.incrementAndGet();
+                    order.complete(latency);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Recibe un pedido y reparte sus dos mitades entre las estaciones.
+     *
+     * @param factory Familia de productos del pedido
+     * @return Pedido en curso
+     */
+    public KitchenOrder submit(RestaurantFactory factory) {
+        KitchenOrder order = new KitchenOrder(nextId.incrementAndGet(), factory);
+        grillQueue.add(order);
+        drinkQueue.add(order);
+        return order;
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    // Latencias registradas en milisegundos, ordenadas de menor a mayor
+    public double[] getSortedLatenciesMillis() {
+        double[] values = latencies.stream().mapToDouble(nanos -> nanos / 1_000_000.0).toArray();
+        Arrays.sort(values);
+        return values;
+    }
+
+    @Override
+    public void close() {
+        grillStations.shutdownNow();
+        drinkStations.shutdownNow();
+    }
+}
+
+
+/**
+ * Clase demostrativa del patrón Abstract Factory en una cocina con estaciones paralelas.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * En AbstractFactoryPattern_01 cada pedido prepara la hamburguesa y luego sirve la bebida.
+ * Aquí las parrillas y las estaciones de bebidas trabajan al mismo tiempo, y se mide
+ * cuántos pedidos por segundo salen y cuánto espera cada pedido al cambiar el número de estaciones.
+ */
+public class AbstractFactoryPattern_03 {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println(GREEN + "Pedidos de ejemplo:" + RESET);
+        try (Kitchen kitchen = new Kitchen(1, 1, 0, 0)) {
+            kitchen.submit(new FastFoodRestaurantFactory()).getDone().get();
+            kitchen.submit(new HealthyRestaurantFactory()).getDone().get();
+        }
+
+        System.out.println(GREEN + "\nEscalando estaciones (parrilla 8 ms, bebida 3 ms, 120 pedidos):" + RESET);
+        System.out.println(String.format("%-8s %-8s %12s %10s %10s %10s",
+                "parrilla", "bebidas", "pedidos/s", "media ms", "p50 ms", "p99 ms"));
+
+        int[][] layouts = {{1, 1}, {2, 1}, {4, 1}, {4, 2}, {8, 4}};
+        for (int[] layout : layouts) {
+            report(layout[0], layout[1], benchmark(layout[0], layout[1], 120));
+        }
+    }
+
+    private static double[] benchmark(int grills, int drinks, int orders) throws Exception {
+        RestaurantFactory[] menus = {new FastFoodRestaurantFactory(), new HealthyRestaurantFactory()};
+        PrintStream console = System.out;
+        // Se silencia la salida de los productos para medir solo la cocina
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try (Kitchen kitchen = new Kitchen(grills, drinks, 8, 3)) {
+            List<KitchenOrder> pending = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < orders; i++) {
+                pending.add(kitchen.submit(menus[i % menus.length]));
+            }
+            for (KitchenOrder order : pending) {
+                order.getDone().get(30, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            double[] latencies = kitchen.getSortedLatenciesMillis();
+            double mean = Arrays.stream(latencies).average().orElse(0);
+            return new double[]{
+                    orders / seconds,
+                    mean,
+                    latencies[(int) (latencies.length * 0.50)],
+                    latencies[Math.min(latencies.length - 1, (int) (latencies.length * 0.99))]
+            };
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static void report(int grills, int drinks, double[] result) {
+        System.out.println(String.format("%-8d %-8d %12.1f %10.1f %10.1f %10.1f",
+                grills, drinks, result[0], result[1], result[2], result[3]));
+    }
+}
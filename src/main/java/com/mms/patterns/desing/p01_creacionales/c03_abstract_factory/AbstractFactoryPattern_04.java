@@ -0,0 +1,349 @@
+/**
+ * ! Abstract Factory en una línea de ensamblaje:
+ * La fábrica (VehicleFactory) sigue decidiendo qué familia de vehículo y motor se construye,
+ * pero cada paso del proceso es una etapa independiente con sus propios operarios (hilos).
+ *
+ * * Es útil cuando la creación de una familia de productos tiene varios pasos
+ * * y queremos que muchos productos avancen por la línea al mismo tiempo.
+ *
+ * https://refactoring.guru/es/design-patterns/abstract-factory
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c03_abstract_factory;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.mms.patterns.desing.utils.Sleep;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+// Vehículo en tránsito por la línea: acumula los productos creados en cada etapa
+class VehicleJob {
+
+    private final long id;
+    private final VehicleFactory factory;
+    private Vehicle vehicle;
+    private Engine engine;
+    // Error de la etapa que falló; el vehículo sigue por la línea sin más trabajo hasta la salida
+    private RuntimeException failure;
+
+    public VehicleJob(long id, VehicleFactory factory) {
+        this.id = id;
+        this.factory = factory;
+    }
+
+    public long getId() { return id; }
+    public VehicleFactory getFactory() { return factory; }
+    public Vehicle getVehicle() { return vehicle; }
+    public void setVehicle(Vehicle vehicle) { this.vehicle = vehicle; }
+    public Engine getEngine() { return engine; }
+    public void setEngine(Engine engine) { this.engine = engine; }
+    public RuntimeException getFailure() { return failure; }
+    void fail(RuntimeException failure) { this.failure = failure; }
+}
+
+
+/**
+ * Etapa de la línea de ensamblaje.
+ *
+ * Toma trabajos de su buffer de entrada (ArrayBlockingQueue, un buffer circular acotado),
+ * los procesa con su propio grupo de hilos y los deja en el buffer de la siguiente etapa.
+ * Si ese buffer está lleno, la etapa espera: así la presión se propaga hacia atrás
+ * (backpressure) en lugar de acumular vehículos sin límite.
+ */
+class AssemblyStage {
+
+    private final String name;
+    private final int threads;
+    private final Consumer<VehicleJob> work;
+    private final BlockingQueue<VehicleJob> input;
+    private BlockingQueue<VehicleJob> output;
+    private Consumer<VehicleJob> sink;
+
+    // Métricas de la etapa
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+    private final LongAdder depthSamples = new LongAdder();
+    private final LongAdder depthSum = new LongAdder();
+    private final AtomicLong maxDepth = new AtomicLong();
+
+    public AssemblyStage(String name, int threads, int capacity, Consumer<VehicleJob> work) {
+        if (threads <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("La etapa " + name + " necesita hilos y capacidad positivos");
+        }
+        this.name = name;
+        this.threads = threads;
+        this.work = work;
+        this.input = new ArrayBlockingQueue<>(capacity);
+    }
+
+    void connect(BlockingQueue<VehicleJob> output) { this.output = output; }
+    void finishWith(Consumer<VehicleJob> sink) { this.sink = sink; }
+
+    BlockingQueue<VehicleJob> getInput() { return input; }
+    public String getName() { return name; }
+    public int getThreads() { return threads; }
+
+    List<Thread> start() {
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::run, "etapa-" + name + "-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        return workers;
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                VehicleJob job = input.take();
+
+                long start = System.nanoTime();
+                if (job.getFailure() == null) {
+                    try {
+                        work.accept(job);
+                        processed.increment();
+                    } catch (RuntimeException ex) {
+                        // El vehículo queda marcado y el hilo de la etapa sigue trabajando
+                        job.fail(new IllegalStateException("Falló la etapa " + name + " del vehículo " + job.getId(), ex));
+                    }
+                }
+                long end = System.nanoTime();
+                busyNanos.add(end - start);
+
+                if (output != null) {
+                    output.put(job);
+                    blockedNanos.add(System.nanoTime() - end);
+                } else {
+                    sink.accept(job);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void sampleDepth() {
+        int depth = input.size();
+        depthSamples.increment();
+        depthSum.add(depth);
+        maxDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    public long getProcessed() { return processed.sum(); }
+    public int getQueueDepth() { return input.size(); }
+    public long getMaxQueueDepth() { return maxDepth.get(); }
+
+    public double getAverageQueueDepth() {
+        long samples = depthSamples.sum();
+        return samples == 0 ? 0 : (double) depthSum.sum() / samples;
+    }
+
+    // Fracción del tiempo disponible de sus hilos que la etapa pasó trabajando
+    public double getUtilization(long wallNanos) {
+        return wallNanos == 0 ? 0 : (double) busyNanos.sum() / ((double) wallNanos * threads);
+    }
+
+    // Tiempo que la etapa estuvo esperando porque la siguiente no tenía espacio
+    public double getBlockedMillis() {
+        return blockedNanos.sum() / 1_000_000.0;
+    }
+}
+
+
+/**
+ * Línea de ensamblaje formada por etapas conectadas con buffers acotados.
+ *
+ * Los vehículos entran con submit(), avanzan etapa por etapa de forma concurrente
+ * y la línea expone utilización, profundidad de cola y la etapa cuello de botella.
+ */
+class AssemblyLine implements AutoCloseable {
+
+    private final int bufferCapacity;
+    private final List<AssemblyStage> stages = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final Semaphore finished = new Semaphore(0);
+    private final ConcurrentLinkedQueue<VehicleJob> failed = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private ScheduledExecutorService sampler;
+    private long startedAt;
+    private long stoppedAt;
+
+    public AssemblyLine(int bufferCapacity) {
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    /**
+     * Agrega una etapa al final de la línea.
+     *
+     * @param name    Nombre de la etapa
+     * @param threads Hilos asignados a la etapa
+     * @param work    Trabajo que realiza sobre cada vehículo
+     * @return La misma línea, para encadenar etapas
+     */
+    public AssemblyLine stage(String name, int threads, Consumer<VehicleJob> work) {
+        if (startedAt != 0) {
+            throw new IllegalStateException("No se pueden agregar etapas con la línea en marcha");
+        }
+        stages.add(new AssemblyStage(name, threads, bufferCapacity, work));
+        return this;
+    }
+
+    public AssemblyLine start() {
+        if (stages.isEmpty()) {
+            throw new IllegalStateException("La línea necesita al menos una etapa");
+        }
+        for (int i = 0; i < stages.size() - 1; i++) {
+            stages.get(i).connect(stages.get(i + 1).getInput());
+        }
+        stages.get(stages.size() - 1).finishWith(job -> {
+            // Se registra antes de liberar el permiso para que awaitCompleted ya vea la falla
+            if (job.getFailure() != null) failed.add(job);
+            finished.release();
+        });
+
+        startedAt = System.nanoTime();
+        for (AssemblyStage stage : stages) {
+            workers.addAll(stage.start());
+        }
+
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "linea-muestreo");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(() -> stages.forEach(AssemblyStage::sampleDepth), 0, 2, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    // Bloquea al productor si la primera etapa está llena (backpressure hasta la entrada)
+    public void submit(VehicleFactory factory) throws InterruptedException {
+        stages.get(0).getInput().put(new VehicleJob(nextId.incrementAndGet(), factory));
+    }
+
+    /**
+     * Espera a que salgan de la línea {@code vehicles} vehículos, terminados o con error.
+     *
+     * @throws IllegalStateException si alguno falló; la causa es el error del primero y las demás
+     *                               fallas se agregan como suprimidas
+     */
+    public void awaitCompleted(int vehicles) throws InterruptedException {
+        finished.acquire(vehicles);
+        stoppedAt = System.nanoTime();
+        VehicleJob first = failed.poll();
+        if (first != null) {
+            IllegalStateException error = new IllegalStateException("Hay vehículos que no se completaron", first.getFailure());
+            for (VehicleJob job = failed.poll(); job != null; job = failed.poll()) {
+                error.addSuppressed(job.getFailure());
+            }
+            throw error;
+        }
+    }
+
+    public long getWallNanos() {
+        return (stoppedAt != 0 ? stoppedAt : System.nanoTime()) - startedAt;
+    }
+
+    public List<AssemblyStage> getStages() {
+        return stages;
+    }
+
+    // La etapa más ocupada es la que limita el ritmo de toda la línea
+    public AssemblyStage bottleneck() {
+        long wall = getWallNanos();
+        return stages.stream()
+                .max(Comparator.comparingDouble(stage -> stage.getUtilization(wall)))
+                .orElseThrow();
+    }
+
+    @Override
+    public void close() {
+        if (sampler != null) sampler.shutdownNow();
+        workers.forEach(Thread::interrupt);
+    }
+}
+
+
+/**
+ * Clase demostrativa del patrón Abstract Factory en una línea de ensamblaje.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * En AbstractFactoryPattern_02 cada vehículo se crea, ensambla, recibe motor y arranca uno tras otro.
+ * Aquí cada paso es una etapa con su propio número de hilos; varios vehículos avanzan a la vez
+ * y las métricas muestran qué etapa es el cuello de botella al repartir los hilos.
+ */
+public class AbstractFactoryPattern_04 {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println(GREEN + "Línea con un hilo por etapa (ensamblaje 6 ms, resto 2 ms):" + RESET);
+        run(new int[]{1, 1, 1, 1}, 200);
+
+        System.out.println(GREEN + "\nLínea con más hilos en la etapa de ensamblaje:" + RESET);
+        run(new int[]{1, 3, 1, 1}, 200);
+    }
+
+    private static void run(int[] threads, int vehicles) throws Exception {
+        VehicleFactory[] factories = {new ElectricVehicleFactory(), new GasVehicleFactory()};
+
+        PrintStream console = System.out;
+        // Se silencia la salida de los productos para medir solo la línea
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try (AssemblyLine line = new AssemblyLine(16)
+                .stage("createVehicle", threads[0], job -> {
+                    job.setVehicle(job.getFactory().createVehicle());
+                    Sleep.sleep(2);
+                })
+                .stage("assemble", threads[1], job -> {
+                    job.getVehicle().assemble();
+                    Sleep.sleep(6);
+                })
+                .stage("createEngine", threads[2], job -> {
+                    job.setEngine(job.getFactory().createEngine());
+                    Sleep.sleep(2);
+                })
+                .stage("start", threads[3], job -> {
+                    job.getEngine().start();
+                    Sleep.sleep(2);
+                })
+                .start()) {
+
+            for (int i = 0; i < vehicles; i++) {
+                line.submit(factories[i % factories.length]);
+            }
+            line.awaitCompleted(vehicles);
+            System.setOut(console);
+
+            long wall = line.getWallNanos();
+            System.out.println(String.format("Vehículos: %d en %.1f ms (%.1f vehículos/s)",
+                    vehicles, wall / 1_000_000.0, vehicles / (wall / 1_000_000_000.0)));
+            System.out.println(String.format("%-14s %6s %10s %12s %10s %12s",
+                    "etapa", "hilos", "uso %", "cola media", "cola máx", "bloqueo ms"));
+            for (AssemblyStage stage : line.getStages()) {
+                System.out.println(String.format("%-14s %6d %10.1f %12.1f %10d %12.1f",
+                        stage.getName(), stage.getThreads(), stage.getUtilization(wall) * 100,
+                        stage.getAverageQueueDepth(), stage.getMaxQueueDepth(), stage.getBlockedMillis()));
+            }
+            System.out.println(YELLOW + "Cuello de botella: " + line.bottleneck().getName() + RESET);
+        } finally {
+            System.setOut(console);
+        }
+    }
+}
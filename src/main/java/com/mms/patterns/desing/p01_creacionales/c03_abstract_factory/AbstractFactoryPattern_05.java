@@ -0,0 +1,312 @@
+/**
+ * ! Abstract Factory con productos compartidos:
+ * Si un producto no tiene estado, todas las llamadas a createX() pueden devolver la misma
+ * instancia sin que el cliente note la diferencia. Los productos con estado se reutilizan
+ * desde un pool, siempre que sepan volver a su estado inicial.
+ *
+ * * Es útil cuando las fábricas se llaman millones de veces y la mayoría de los
+ * * productos son objetos sin atributos (solo comportamiento).
+ *
+ * https://refactoring.guru/es/design-patterns/abstract-factory
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c03_abstract_factory;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+// Declara explícitamente que un producto no tiene estado y puede compartirse
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@interface StatelessProduct {
+}
+
+
+// Producto con estado que sabe volver a su estado inicial para reutilizarse desde un pool
+interface PooledProduct {
+
+    void reset();
+}
+
+
+// Cómo se reutiliza un producto según su clase concreta
+enum ProductKind {
+    SHARED,   // sin estado: una instancia sirve para todas las llamadas
+    POOLED,   // con estado, pero sabe volver a su estado inicial (PooledProduct)
+    FRESH     // con estado y sin reset(): se crea uno nuevo en cada llamada
+}
+
+
+// Clasifica cada clase de producto una sola vez
+final class StatelessProducts {
+
+    // El resultado se calcula una sola vez por clase
+    private static final ClassValue<ProductKind> KINDS = new ClassValue<>() {
+        @Override
+        protected ProductKind computeValue(Class<?> type) {
+            if (isStateless(type)) return ProductKind.SHARED;
+            return PooledProduct.class.isAssignableFrom(type) ? ProductKind.POOLED : ProductKind.FRESH;
+        }
+
+        private boolean isStateless(Class<?> type) {
+            if (type.isAnnotationPresent(StatelessProduct.class)) return true;
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    // Los campos sintéticos (por ejemplo, la referencia a la clase externa) también son estado
+                    if (!Modifier.isStatic(field.getModifiers())) return false;
+                }
+            }
+            return true;
+        }
+    };
+
+    private StatelessProducts() {
+    }
+
+    public static ProductKind kindOf(Class<?> type) {
+        return KINDS.get(type);
+    }
+
+    public static boolean isStateless(Class<?> type) {
+        return kindOf(type) == ProductKind.SHARED;
+    }
+}
+
+
+/**
+ * Fuente de un tipo de producto dentro de una fábrica con caché.
+ *
+ * No se crea ninguna instancia de prueba: cada producto que devuelve la fábrica original se
+ * clasifica por su propia clase.
+ *
+ * - Producto sin estado: la primera instancia se guarda y se devuelve en las siguientes llamadas.
+ *   Una fábrica concreta fija la clase de cada producto, así que no hace falta volver a crearlo.
+ * - Producto con estado que implementa PooledProduct: se toma de un pool acotado y se registra
+ *   como prestado hasta que vuelve con release().
+ * - Cualquier otro producto: se crea uno nuevo en cada llamada, como hoy.
+ */
+final class ProductSlot<T> {
+
+    private final Supplier<T> creator;
+    private final int maxPooled;
+    private volatile T shared;
+    private final ConcurrentLinkedQueue<T> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledCount = new AtomicInteger();
+
+    // Productos del pool entregados y aún no devueltos; se comparan por identidad, no con equals()
+    private final Set<Object> lent = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    public ProductSlot(Supplier<T> creator, int maxPooled) {
+        this.creator = creator;
+        this.maxPooled = maxPooled;
+    }
+
+    public T get() {
+        T product = shared;
+        if (product != null) return product;
+
+        product = pool.poll();
+        if (product != null) {
+            pooledCount.decrementAndGet();
+        } else {
+            product = creator.get();
+            switch (StatelessProducts.kindOf(product.getClass())) {
+                case SHARED -> {
+                    shared = product;
+                    return product;
+                }
+                case FRESH -> {
+                    return product;
+                }
+                case POOLED -> {
+                }
+            }
+        }
+        lent.add(product);
+        return product;
+    }
+
+    /**
+     * Devuelve un producto con estado al pool. Los compartidos y los que no tienen reset() se ignoran.
+     *
+     * Solo se aceptan productos reutilizables entregados por este slot y todavía no devueltos:
+     * devolver dos veces el mismo objeto lo metería dos veces en el pool y dos clientes acabarían
+     * usando la misma instancia.
+     */
+    public void release(T product) {
+        if (product == null || StatelessProducts.kindOf(product.getClass()) != ProductKind.POOLED) return;
+        if (!lent.remove(product)) {
+            throw new IllegalArgumentException("El producto no se entregó desde esta fábrica o ya se devolvió: "
+                    + product.getClass().getSimpleName());
+        }
+        if (pooledCount.incrementAndGet() > maxPooled) {
+            pooledCount.decrementAndGet();
+            return;
+        }
+        ((PooledProduct) product).reset();
+        pool.offer(product);
+    }
+
+    public boolean isShared() { return shared != null; }
+}
+
+
+// Fábrica concreta con caché: envuelve cualquier RestaurantFactory
+class CachingRestaurantFactory implements RestaurantFactory {
+
+    private final ProductSlot<Hamburger> hamburgers;
+    private final ProductSlot<Drink> drinks;
+
+    public CachingRestaurantFactory(RestaurantFactory delegate) {
+        this(delegate, 64);
+    }
+
+    public CachingRestaurantFactory(RestaurantFactory delegate, int maxPooled) {
+        this.hamburgers = new ProductSlot<>(delegate::createHamburger, maxPooled);
+        this.drinks = new ProductSlot<>(delegate::createDrink, maxPooled);
+    }
+
+    @Override
+    public Hamburger createHamburger() {
+        return hamburgers.get();
+    }
+
+    @Override
+    public Drink createDrink() {
+        return drinks.get();
+    }
+
+    public void release(Hamburger hamburger) { hamburgers.release(hamburger); }
+    public void release(Drink drink) { drinks.release(drink); }
+}
+
+
+// Fábrica concreta con caché: envuelve cualquier VehicleFactory
+class CachingVehicleFactory implements VehicleFactory {
+
+    private final ProductSlot<Vehicle> vehicles;
+    private final ProductSlot<Engine> engines;
+
+    public CachingVehicleFactory(VehicleFactory delegate) {
+        this(delegate, 64);
+    }
+
+    public CachingVehicleFactory(VehicleFactory delegate, int maxPooled) {
+        this.vehicles = new ProductSlot<>(delegate::createVehicle, maxPooled);
+        this.engines = new ProductSlot<>(delegate::createEngine, maxPooled);
+    }
+
+    @Override
+    public Vehicle createVehicle() {
+        return vehicles.get();
+    }
+
+    @Override
+    public Engine createEngine() {
+        return engines.get();
+    }
+
+    public void release(Vehicle vehicle) { vehicles.release(vehicle); }
+    public void release(Engine engine) { engines.release(engine); }
+}
+
+
+// Producto concreto con estado: hamburguesa personalizada con ingredientes extra
+class CustomHamburger implements Hamburger, PooledProduct {
+
+    private final List<String> extras = new ArrayList<>();
+
+    public void addExtra(String extra) {
+        extras.add(extra);
+    }
+
+    @Override
+    public void prepare() {
+        System.out.println(ORANGE + "Preparando una hamburguesa personalizada con " + extras + RESET);
+    }
+
+    @Override
+    public void reset() {
+        extras.clear();
+    }
+}
+
+
+// Fábrica concreta: menú personalizado (hamburguesa con estado + refresco sin estado)
+class CustomRestaurantFactory implements RestaurantFactory {
+
+    @Override
+    public Hamburger createHamburger() {
+        return new CustomHamburger();
+    }
+
+    @Override
+    public Drink createDrink() {
+        return new Soda();
+    }
+}
+
+
+/**
+ * Clase demostrativa del patrón Abstract Factory con productos compartidos.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * ChickenHamburger, Soda, ElectricEngine y el resto de productos concretos no tienen atributos,
+ * pero cada createX() crea un objeto nuevo. La fábrica con caché detecta que no tienen estado
+ * y devuelve siempre la misma instancia; la hamburguesa personalizada, que sí tiene estado,
+ * se reutiliza desde un pool y no se puede devolver dos veces.
+ *
+ * La memoria asignada por pedido se compara en CachingFactoryBenchmark (src/jmh, perfil bench).
+ */
+public class AbstractFactoryPattern_05 {
+
+    public static void main(String[] args) {
+        CachingRestaurantFactory healthy = new CachingRestaurantFactory(new HealthyRestaurantFactory());
+        System.out.println(GREEN + "¿Misma hamburguesa saludable en dos pedidos? " + RESET
+                + (healthy.createHamburger() == healthy.createHamburger()));
+
+        CachingRestaurantFactory custom = new CachingRestaurantFactory(new CustomRestaurantFactory());
+        CustomHamburger first = (CustomHamburger) custom.createHamburger();
+        first.addExtra("queso");
+        first.prepare();
+        custom.release(first);
+        CustomHamburger second = (CustomHamburger) custom.createHamburger();
+        second.prepare();
+        System.out.println(GREEN + "¿Hamburguesa personalizada reutilizada desde el pool? " + RESET
+                + (first == second));
+
+        // Devolverla dos veces, o devolver una que no salió de esta fábrica, se rechaza
+        custom.release(second);
+        expectRejected("Segunda devolución", () -> custom.release(second));
+        expectRejected("Hamburguesa ajena", () -> custom.release(new CustomHamburger()));
+
+        // La bebida del menú personalizado no tiene estado aunque la hamburguesa sí
+        System.out.println(GREEN + "¿Mismo refresco en dos pedidos personalizados? " + RESET
+                + (custom.createDrink() == custom.createDrink()));
+    }
+
+    private static void expectRejected(String name, Runnable release) {
+        try {
+            release.run();
+        } catch (IllegalArgumentException ex) {
+            System.out.println(GREEN + name + " rechazada: " + RESET + ex.getMessage());
+            return;
+        }
+        throw new IllegalStateException(name + " aceptada por el pool");
+    }
+}
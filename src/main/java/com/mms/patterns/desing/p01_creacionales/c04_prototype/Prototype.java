@@ -0,0 +1,14 @@
+package com.mms.patterns.desing.p01_creacionales.c04_prototype;
+
+/**
+ * ! Interfaz común de los prototipos
+ *
+ * Permite que el código cliente (por ejemplo, PrototypeRegistry) clone objetos
+ * sin conocer su clase concreta.
+ *
+ * @param <T> Tipo concreto que devuelve el clon
+ */
+public interface Prototype<T extends Prototype<T>> {
+
+    T clone();
+}
@@ -0,0 +1,343 @@
+package com.mms.patterns.desing.p01_creacionales.c04_prototype;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.mms.patterns.desing.utils.Rope;
+
+/**
+ * ! Copiador genérico de prototipos
+ *
+ * Caso de uso:
+ * Cada prototipo escribe su propio clone() llamando a un constructor. Este copiador genera,
+ * una sola vez por clase, una rutina de copia hecha de MethodHandles (un getter y un setter por
+ * atributo) y la guarda en caché con ClassValue.
+ *
+ * Qué se puede copiar:
+ * las clases de la aplicación se suman implementando {@link Prototype}. El copiador no crea
+ * instancias por su cuenta ni necesita constructores especiales: la copia sale del clone() de la
+ * clase, que decide qué se comparte (por ejemplo, listas con copy-on-write).
+ *
+ * Modos:
+ * - SHALLOW: la copia es el clone() del prototipo.
+ * - DEEP: a la copia de clone() se le reemplaza cada atributo por una copia profunda de su valor:
+ *   - Se comparten solo los valores inmutables conocidos: String, primitivos envueltos,
+ *     BigInteger/BigDecimal, UUID, enums, java.time y Rope. Los records se reconstruyen con su
+ *     constructor canónico (si ningún componente cambió, se comparte el original).
+ *   - Colecciones y mapas se copian en su misma clase (un TreeMap sigue siendo un TreeMap y conserva
+ *     su Comparator) con su clone() público o su constructor vacío. Las de List.of/Set.of/Map.of se
+ *     comparten si sus elementos son inmutables y si no se vuelven a crear con List.copyOf/Set.copyOf/Map.copyOf.
+ *   - Otros objetos del JDK se copian con su clone() público (Date, por ejemplo).
+ *   - Lo demás (StringBuilder, AtomicLong, vistas como Arrays.asList o Collections.synchronizedList,
+ *     clases de la aplicación que no implementan Prototype) no se puede copiar sin compartir estado
+ *     mutable: se rechaza con IllegalArgumentException.
+ *   Los ciclos se respetan: cada objeto se copia una sola vez.
+ */
+public final class PrototypeCopier {
+
+    public enum Mode {
+        SHALLOW, DEEP
+    }
+
+    // Clases cuyas instancias no cambian; se compara la clase exacta (una subclase podría ser mutable)
+    private static final Set<Class<?>> IMMUTABLE = Set.of(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class,
+            Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class, UUID.class,
+            Class.class, Rope.class);
+
+    private static final ClassValue<ClassCopier> COPIERS = new ClassValue<>() {
+        @Override
+        protected ClassCopier computeValue(Class<?> type) {
+            return new ClassCopier(type);
+        }
+    };
+
+    // clone() público de la clase como (Object original) -> Object, o null
+    private static final ClassValue<MethodHandle> PUBLIC_CLONES = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return publicClone(type);
+        }
+    };
+
+    // Crea una colección vacía de la misma clase que la original: (Object original) -> Object, o null
+    private static final ClassValue<MethodHandle> EMPTY_COLLECTIONS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return emptyCollectionFactory(type);
+        }
+    };
+
+    private static final ClassValue<RecordCopier> RECORDS = new ClassValue<>() {
+        @Override
+        protected RecordCopier computeValue(Class<?> type) {
+            return new RecordCopier(type);
+        }
+    };
+
+    private PrototypeCopier() {
+    }
+
+    /**
+     * @param source Prototipo a copiar
+     * @param mode   Copia superficial o profunda
+     * @return Una copia de {@code source} de la misma clase
+     */
+    public static <T extends Prototype<T>> T copy(T source, Mode mode) {
+        if (source == null) return null;
+        if (mode == Mode.SHALLOW) {
+            return source.clone();
+        }
+        @SuppressWarnings("unchecked")
+        T copy = (T) deepCopy(source, new IdentityHashMap<>());
+        return copy;
+    }
+
+    private static boolean isImmutable(Object value) {
+        Class<?> type = value.getClass();
+        return IMMUTABLE.contains(type) || value instanceof Enum<?>
+                || type.getPackageName().startsWith("java.time");
+    }
+
+    private static Object deepCopy(Object value, IdentityHashMap<Object, Object> copies) {
+        if (value == null || isImmutable(value)) return value;
+
+        Object existing = copies.get(value);
+        if (existing != null) return existing;
+
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(value);
+            Object copy = Array.newInstance(type.getComponentType(), length);
+            copies.put(value, copy);
+            if (type.getComponentType().isPrimitive()) {
+                System.arraycopy(value, 0, copy, 0, length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    Array.set(copy, i, deepCopy(Array.get(value, i), copies));
+                }
+            }
+            return copy;
+        }
+        if (value instanceof Collection<?> || value instanceof Map<?, ?>) {
+            return copyCollection(value, copies);
+        }
+        if (type.isRecord()) {
+            return RECORDS.get(type).deepCopy(value, copies);
+        }
+        if (value instanceof Prototype<?>) {
+            return COPIERS.get(type).deepCopy(value, copies);
+        }
+        if (type.getName().startsWith("java.") || type.getName().startsWith("javax.")) {
+            MethodHandle clone = PUBLIC_CLONES.get(type);
+            if (clone != null) {
+                Object copy = invoke(clone, value);
+                copies.put(value, copy);
+                return copy;
+            }
+        }
+        throw new IllegalArgumentException("No se puede copiar en profundidad " + type.getName()
+                + ": no es inmutable, no tiene clone() público y no implementa Prototype");
+    }
+
+    private static Object copyCollection(Object value, IdentityHashMap<Object, Object> copies) {
+        Class<?> type = value.getClass();
+        if (type.getName().startsWith("java.util.ImmutableCollections$")) {
+            // List.of/Set.of/Map.of: se vuelven a crear inmodificables con los elementos copiados,
+            // o se comparten si todos sus elementos son inmutables
+            boolean changed = false;
+            if (value instanceof Map<?, ?> map) {
+                Map<Object, Object> copied = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    Object key = deepCopy(entry.getKey(), copies);
+                    Object copiedValue = deepCopy(entry.getValue(), copies);
+                    changed |= key != entry.getKey() || copiedValue != entry.getValue();
+                    copied.put(key, copiedValue);
+                }
+                return remember(value, changed ? Map.copyOf(copied) : value, copies);
+            }
+            List<Object> copied = new ArrayList<>();
+            for (Object element : (Collection<?>) value) {
+                Object copiedElement = deepCopy(element, copies);
+                changed |= copiedElement != element;
+                copied.add(copiedElement);
+            }
+            if (!changed) return remember(value, value, copies);
+            return remember(value, value instanceof Set<?> ? Set.copyOf(copied) : List.copyOf(copied), copies);
+        }
+
+        MethodHandle factory = EMPTY_COLLECTIONS.get(type);
+        if (factory == null) {
+            throw new IllegalArgumentException("No se puede copiar en profundidad " + type.getName()
+                    + ": no tiene clone() público ni constructor vacío (¿es una vista de otra colección?)");
+        }
+        Object copy = invoke(factory, value);
+        copies.put(value, copy);
+        if (copy instanceof Map<?, ?> map) {
+            map.clear();
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> target = (Map<Object, Object>) copy;
+            ((Map<?, ?>) value).forEach((k, v) -> target.put(deepCopy(k, copies), deepCopy(v, copies)));
+        } else {
+            ((Collection<?>) copy).clear();
+            @SuppressWarnings("unchecked")
+            Collection<Object> target = (Collection<Object>) copy;
+            for (Object element : (Collection<?>) value) {
+                target.add(deepCopy(element, copies));
+            }
+        }
+        return copy;
+    }
+
+    private static Object remember(Object original, Object copy, IdentityHashMap<Object, Object> copies) {
+        copies.put(original, copy);
+        return copy;
+    }
+
+    private static Object invoke(MethodHandle handle, Object original) {
+        try {
+            return (Object) handle.invokeExact(original);
+        } catch (UnsupportedOperationException ex) {
+            throw new IllegalArgumentException("No se puede copiar " + original.getClass().getName(), ex);
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Error copiando " + original.getClass().getName(), ex);
+        }
+    }
+
+    private static MethodHandle publicClone(Class<?> type) {
+        if (!Cloneable.class.isAssignableFrom(type)) return null;
+        try {
+            return MethodHandles.publicLookup().findVirtual(type, "clone", MethodType.methodType(Object.class))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (ReflectiveOperationException | SecurityException ex) {
+            return null;
+        }
+    }
+
+    // clone() público (conserva el Comparator de TreeMap/TreeSet, la clase de EnumMap...) o constructor vacío
+    private static MethodHandle emptyCollectionFactory(Class<?> type) {
+        MethodHandle clone = PUBLIC_CLONES.get(type);
+        if (clone != null) return clone;
+        try {
+            MethodHandle constructor = MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class));
+            return MethodHandles.dropArguments(constructor.asType(MethodType.methodType(Object.class)), 0, Object.class);
+        } catch (ReflectiveOperationException | SecurityException ex) {
+            return null;
+        }
+    }
+
+
+    // Rutina de copia generada para una clase que implementa Prototype
+    private static final class ClassCopier {
+
+        private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final Class<?> type;
+        private final MethodHandle[] getters;
+        private final MethodHandle[] setters;
+
+        ClassCopier(Class<?> type) {
+            this.type = type;
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                List<MethodHandle> getterList = new ArrayList<>();
+                List<MethodHandle> setterList = new ArrayList<>();
+                for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        // Los primitivos ya quedaron copiados por clone()
+                        if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) continue;
+                        // Necesario para poder escribir atributos final
+                        field.setAccessible(true);
+                        getterList.add(lookup.unreflectGetter(field).asType(GETTER));
+                        setterList.add(lookup.unreflectSetter(field).asType(SETTER));
+                    }
+                }
+                this.getters = getterList.toArray(MethodHandle[]::new);
+                this.setters = setterList.toArray(MethodHandle[]::new);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                throw new IllegalStateException("No se pudo generar el copiador para " + type.getName(), ex);
+            }
+        }
+
+        Object deepCopy(Object source, IdentityHashMap<Object, Object> copies) {
+            Object copy = ((Prototype<?>) source).clone();
+            if (copy.getClass() != type) {
+                throw new IllegalStateException(type.getName() + ".clone() devolvió un " + copy.getClass().getName());
+            }
+            copies.put(source, copy);
+            try {
+                for (int i = 0; i < getters.length; i++) {
+                    Object value = (Object) getters[i].invokeExact(source);
+                    setters[i].invokeExact(copy, PrototypeCopier.deepCopy(value, copies));
+                }
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Error copiando " + type.getName(), ex);
+            }
+            return copy;
+        }
+    }
+
+    // Copia de un record: componentes copiados en profundidad y constructor canónico
+    private static final class RecordCopier {
+
+        private final MethodHandle[] accessors;
+        private final MethodHandle constructor;
+
+        RecordCopier(Class<?> type) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] types = new Class<?>[components.length];
+                accessors = new MethodHandle[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    types[i] = components[i].getType();
+                    accessors[i] = lookup.unreflect(components[i].getAccessor())
+                            .asType(MethodType.methodType(Object.class, Object.class));
+                }
+                constructor = lookup.findConstructor(type, MethodType.methodType(void.class, types))
+                        .asSpreader(Object[].class, components.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                throw new IllegalArgumentException("No se puede copiar el record " + type.getName(), ex);
+            }
+        }
+
+        Object deepCopy(Object source, IdentityHashMap<Object, Object> copies) {
+            try {
+                Object[] values = new Object[accessors.length];
+                boolean changed = false;
+                for (int i = 0; i < accessors.length; i++) {
+                    Object value = (Object) accessors[i].invokeExact(source);
+                    values[i] = PrototypeCopier.deepCopy(value, copies);
+                    changed |= values[i] != value;
+                }
+                // Con todos los componentes inmutables, el record también lo es
+                Object copy = changed ? (Object) constructor.invokeExact(values) : source;
+                copies.put(source, copy);
+                return copy;
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Error copiando " + source.getClass().getName(), ex);
+            }
+        }
+    }
+}
@@ -12,17 +12,25 @@
 
 package com.mms.patterns.desing.p01_creacionales.c04_prototype;
 
+import com.mms.patterns.desing.utils.Rope;
+
 // Clase que representa el producto a clonar (prototipo)
-class Document {
+class Document implements Prototype<Document> {
 
     // Atributos del documento
     private String title;
-    private String content;
+    // Contenido inmutable y compartido entre clones; una edición solo crea el fragmento modificado
+    private Rope content;
     private String author;
 
 
     // Constructor que inicializa el documento con sus atributos
     public Document(String title, String content, String author) {
+        this(title, Rope.of(content), author);
+    }
+
+    // Constructor usado por clone(): comparte el contenido sin copiarlo
+    private Document(String title, Rope content, String author) {
         this.title = title;
         this.content = content;
         this.author = author;
@@ -32,8 +40,13 @@ class Document {
     // Métodos getter y setter para los atributos
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
-    public String getContent() { return content; }
-    public void setContent(String content) { this.content = content; }
+    public String getContent() { return content.toString(); }
+    public void setContent(String content) { this.content = Rope.of(content); }
+    public Rope getContentRope() { return content; }
+    // Reemplaza solo el rango [start, end) del contenido, sin copiar el resto
+    public void editContent(int start, int end, String replacement) {
+        this.content = content.replace(start, end, replacement);
+    }
     public String getAuthor() { return author; }
     public void setAuthor(String author) { this.author = author; }
 
@@ -51,6 +64,7 @@ class Document {
 
 
     // Método Prototype: clona el documento actual
+    @Override
     public Document clone() {
         return new Document(title, content, author);
     }
@@ -14,19 +14,25 @@ package com.mms.patterns.desing.p01_creacionales.c04_prototype;
 
 import static com.mms.patterns.desing.utils.ConsoleColors.*;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 // Clase que representa el producto a clonar (prototipo)
-class Pokemon {
+class Pokemon implements Prototype<Pokemon>, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     // Atributos del Pokémon
     private String name;
     private String type;
     private Integer level;
-    private List<String> attacks;
+    // ArrayList (y no List) para que el atributo sea serializable
+    private ArrayList<String> attacks;
+    // Indica si la lista de ataques se comparte con otro clon (copy-on-write)
+    private boolean sharedAttacks;
 
 
     // Constructor que inicializa el Pokémon con sus atributos
@@ -38,6 +44,17 @@ class Pokemon {
         this.attacks = new ArrayList<>(attacks);
     }
 
+    // Constructor usado por clone(): comparte la lista de ataques sin copiarla
+    private Pokemon(Pokemon source) {
+        this.name = source.name;
+        this.type = source.type;
+        this.level = source.level;
+        this.attacks = source.attacks;
+        this.sharedAttacks = true;
+        // Solo escribe si hace falta: clonar muchas veces el mismo prototipo no vuelve a escribir su atributo
+        if (!source.sharedAttacks) source.sharedAttacks = true;
+    }
+
 
     // Métodos getter y setter para los atributos
     public String getName() { return name; }
@@ -50,9 +67,23 @@ class Pokemon {
     // Devuelve una copia inmodificable de la lista de ataques
     public List<String> getAttacks() { return Collections.unmodifiableList(attacks); }
     // Permite establecer una nueva lista de ataques
-    public void setAttacks(List<String> attacks) { this.attacks = new ArrayList<>(attacks); }
+    public void setAttacks(List<String> attacks) {
+        this.attacks = new ArrayList<>(attacks);
+        this.sharedAttacks = false;
+    }
     // Permite agregar un ataque a la lista
-    public void addAttack(String attack) { this.attacks.add(attack); }
+    public void addAttack(String attack) {
+        ownAttacks();
+        this.attacks.add(attack);
+    }
+
+    // Copia la lista de ataques solo la primera vez que se modifica una lista compartida
+    private void ownAttacks() {
+        if (sharedAttacks) {
+            this.attacks = new ArrayList<>(attacks);
+            this.sharedAttacks = false;
+        }
+    }
 
 
     // Representación en texto del Pokémon
@@ -68,9 +99,10 @@ class Pokemon {
     }
 
 
-    // Método Prototype: clona el Pokémon actual
+    // Método Prototype: clona el Pokémon actual en O(1), compartiendo los ataques hasta que alguno cambie
+    @Override
     public Pokemon clone() {
-        return new Pokemon(name, type, level, attacks);
+        return new Pokemon(this);
     }
 }
 
@@ -0,0 +1,41 @@
+/**
+ * ! Patrón Prototype con copy-on-write:
+
+ * Clonar no siempre necesita copiar todo. Si el clon comparte las partes que no cambia
+ * y solo copia una parte la primera vez que la modifica, clonar cuesta lo mismo
+ * sin importar el tamaño del prototipo.
+ *
+ * * Es útil cuando se crean muchos clones de objetos grandes
+ * * y la mayoría nunca modifica sus colecciones.
+ *
+ * https://refactoring.guru/es/design-patterns/prototype
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c04_prototype;
+
+import java.util.List;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del Prototype con listas copy-on-write.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Pokemon.clone() ya no copia la lista de ataques: el clon la comparte con su prototipo
+ * hasta que se llama a addAttack o setAttacks.
+ *
+ * El tiempo y la memoria por clon frente a la copia completa de la lista, para listas de 10 a
+ * 10.000 ataques, se miden en CopyOnWriteCloneBenchmark (src/jmh, perfil bench).
+ */
+public class PrototypePattern_03 {
+
+    public static void main(String[] args) {
+        // Los clones no se afectan entre sí aunque compartan la lista al principio
+        Pokemon base = new Pokemon("Pikachu", "Eléctrico", 5, List.of("Impactrueno"));
+        Pokemon clone = base.clone();
+        clone.addAttack("Rayo");
+        System.out.println(YELLOW + "Base  = " + RESET + base);
+        System.out.println(YELLOW + "Clon  = " + RESET + clone);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * ! Patrón Prototype con registro de prototipos:
+
+ * Un registro guarda prototipos con nombre y entrega clones a quien los pida,
+ * de modo que el cliente solo necesita conocer el nombre del prototipo.
+ *
+ * * Es útil cuando muchos hilos crean objetos a partir de las mismas plantillas
+ * * (contratos, cotizaciones, Pokémon iniciales...).
+ *
+ * https://refactoring.guru/es/design-patterns/prototype
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c04_prototype;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del registro de prototipos concurrente.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Una aplicación genera contratos y cotizaciones desde varios hilos y un juego reparte
+ * Pokémon iniciales. Ambos registros se precargan al arrancar y cada hilo pide clones
+ * por nombre, uno a uno o en bloque.
+ */
+public class PrototypePattern_04 {
+
+    public static void main(String[] args) throws InterruptedException {
+        PrototypeRegistry<Document> documents = PrototypeRegistry.prewarmed(Map.<String, Supplier<Document>>of(
+                "cotizacion", () -> new Document("Cotización", "500 dólares", "Fernando"),
+                "contrato", () -> new Document("Contrato", "Cláusulas estándar", "Legal")
+        ), 10_000);
+
+        PrototypeRegistry<Pokemon> starters = PrototypeRegistry.prewarmed(Map.<String, Supplier<Pokemon>>of(
+                "fuego", () -> new Pokemon("Charmander", "Fuego", 5, List.of("Arañazo", "Ascuas")),
+                "agua", () -> new Pokemon("Squirtle", "Agua", 5, List.of("Placaje", "Pistola Agua"))
+        ), 10_000);
+
+        Document quote = documents.create("cotizacion");
+        quote.setTitle("Cotización cliente 42");
+        System.out.println(BLUE + "Clon personalizado = " + RESET + quote);
+        System.out.println(BLUE + "Nuevo clon         = " + RESET + documents.create("cotizacion"));
+
+        Pokemon[] team = starters.cloneMany("fuego", 3, Pokemon[]::new);
+        team[0].addAttack("Lanzallamas");
+        for (Pokemon pokemon : team) {
+            System.out.println(ORANGE + "Equipo = " + RESET + pokemon);
+        }
+
+        System.out.println(GREEN + "\n8 hilos clonando contratos en bloques de 1.000:" + RESET);
+        LongAdder clones = new LongAdder();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        long start = System.nanoTime();
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                Document[] batch = new Document[1_000];
+                for (int i = 0; i < 500; i++) {
+                    documents.fill("contrato", batch);
+                    clones.add(batch.length);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.println(String.format("%,d clones en %.1f ms (%,.0f clones/s)",
+                clones.sum(), seconds * 1000, clones.sum() / seconds));
+    }
+}
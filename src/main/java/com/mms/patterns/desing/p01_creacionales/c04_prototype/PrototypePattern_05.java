@@ -0,0 +1,90 @@
+/**
+ * ! Patrón Prototype con contenido compartido:
+
+ * Un clon no necesita su propia copia de un contenido grande si ese contenido es inmutable.
+ * Con un Rope (árbol de fragmentos), los clones comparten todos los fragmentos
+ * y una edición pequeña solo crea el fragmento que cambia.
+ *
+ * * Es útil cuando se mantienen miles de documentos casi idénticos
+ * * (contratos que solo cambian el nombre del cliente, por ejemplo).
+ *
+ * https://refactoring.guru/es/design-patterns/prototype
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c04_prototype;
+
+import java.util.Random;
+
+import com.mms.patterns.desing.utils.Sleep;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del Prototype con contenido compartido.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Se clona 10.000 veces un contrato de 1 MB y cada clon cambia unos pocos caracteres.
+ * Se compara la memoria retenida usando ediciones sobre el Rope frente a reemplazar
+ * el contenido completo con un String nuevo (estimado a partir de una muestra, porque
+ * 10.000 copias de 1 MB no caben en un heap normal).
+ */
+public class PrototypePattern_05 {
+
+    private static final int DOCUMENT_SIZE = 1024 * 1024;
+    private static final int CLONES = 10_000;
+    private static final int STRING_SAMPLE = 200;
+
+    public static void main(String[] args) {
+        Document contract = new Document("Contrato", "x".repeat(DOCUMENT_SIZE), "Legal");
+        Random random = new Random(42);
+
+        // Ejemplo pequeño: la edición del clon no afecta al prototipo
+        Document small = new Document("Cotización", "Total: 500 dólares", "Fernando");
+        Document edited = small.clone();
+        edited.editContent(7, 10, "750");
+        System.out.println(BLUE + "Original = " + RESET + small);
+        System.out.println(BLUE + "Editado  = " + RESET + edited);
+
+        System.out.println(GREEN + "\nMemoria retenida por clon (documento de 1 MB, edición de 8 caracteres):" + RESET);
+
+        long before = usedHeap();
+        Document[] ropeClones = new Document[CLONES];
+        for (int i = 0; i < CLONES; i++) {
+            Document clone = contract.clone();
+            int at = random.nextInt(DOCUMENT_SIZE - 8);
+            clone.editContent(at, at + 8, String.format("%08d", i));
+            ropeClones[i] = clone;
+        }
+        double ropeBytes = (double) (usedHeap() - before) / CLONES;
+
+        before = usedHeap();
+        Document[] stringClones = new Document[STRING_SAMPLE];
+        for (int i = 0; i < STRING_SAMPLE; i++) {
+            Document clone = contract.clone();
+            int at = random.nextInt(DOCUMENT_SIZE - 8);
+            String content = clone.getContent();
+            clone.setContent(content.substring(0, at) + String.format("%08d", i) + content.substring(at + 8));
+            stringClones[i] = clone;
+        }
+        double stringBytes = (double) (usedHeap() - before) / STRING_SAMPLE;
+
+        System.out.println(String.format("%-22s %14s %18s", "estrategia", "KB por clon", "MB para 10.000"));
+        System.out.println(String.format("%-22s %14.1f %18.1f", "Rope (editContent)",
+                ropeBytes / 1024, ropeBytes * CLONES / 1_048_576));
+        System.out.println(String.format("%-22s %14.1f %18.1f", "String (setContent)",
+                stringBytes / 1024, stringBytes * CLONES / 1_048_576));
+
+        // Mantiene vivos los clones hasta después de medir
+        System.out.println(YELLOW + "\nClones conservados: " + (ropeClones.length + stringClones.length) + RESET);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Sleep.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
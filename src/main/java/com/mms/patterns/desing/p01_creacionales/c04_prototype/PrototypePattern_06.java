@@ -0,0 +1,44 @@
+/**
+ * ! Patrón Prototype con copiador genérico:
+
+ * En lugar de escribir clone() a mano en cada prototipo, un copiador genérico genera
+ * la rutina de copia de cada clase la primera vez que la necesita y la reutiliza después.
+ *
+ * * Es útil cuando hay muchas clases de prototipo o cuando se necesita
+ * * elegir entre copia superficial y copia profunda.
+ *
+ * https://refactoring.guru/es/design-patterns/prototype
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c04_prototype;
+
+import java.util.List;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del copiador genérico de prototipos.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Se copian Pokémon y documentos con PrototypeCopier en modo superficial y profundo.
+ *
+ * Su costo frente al clone() escrito a mano, a la copia por serialización y a la copia por
+ * reflexión (Field.get/Field.set) se mide en PrototypeCopierBenchmark (src/jmh, perfil bench).
+ */
+public class PrototypePattern_06 {
+
+    public static void main(String[] args) {
+        Pokemon base = new Pokemon("Bulbasaur", "Planta", 5, List.of("Placaje", "Látigo Cepa"));
+
+        Pokemon shallow = PrototypeCopier.copy(base, PrototypeCopier.Mode.SHALLOW);
+        Pokemon deep = PrototypeCopier.copy(base, PrototypeCopier.Mode.DEEP);
+        deep.addAttack("Hoja Afilada");
+        System.out.println(GREEN + "Base        = " + RESET + base);
+        System.out.println(GREEN + "Superficial = " + RESET + shallow);
+        System.out.println(GREEN + "Profunda    = " + RESET + deep);
+
+        Document document = new Document("Contrato", "Cláusulas", "Legal");
+        System.out.println(BLUE + "Documento   = " + RESET + PrototypeCopier.copy(document, PrototypeCopier.Mode.DEEP));
+    }
+}
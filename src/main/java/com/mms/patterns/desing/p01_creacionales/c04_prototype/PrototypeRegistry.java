@@ -0,0 +1,111 @@
+package com.mms.patterns.desing.p01_creacionales.c04_prototype;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * ! Registro de prototipos concurrente
+ *
+ * Caso de uso:
+ * Varios hilos necesitan clonar los mismos documentos o Pokémon base. En lugar de que cada hilo
+ * construya su propio prototipo, el registro los guarda por nombre, los prepara al arrancar
+ * y entrega clones a cualquier hilo.
+ *
+ * Detalles:
+ * - La búsqueda por nombre usa ConcurrentHashMap.get, que no toma ningún bloqueo.
+ * - El registro guarda su propia copia del prototipo, así nadie puede modificarlo desde fuera.
+ * - cloneMany/fill llenan un arreglo con N clones en una sola llamada (una sola búsqueda).
+ *
+ * @param <T> Tipo de prototipo almacenado
+ */
+public class PrototypeRegistry<T extends Prototype<T>> {
+
+    private final Map<String, T> prototypes = new ConcurrentHashMap<>();
+
+    /**
+     * Crea un registro con prototipos precargados y ya calentados.
+     *
+     * @param templates   Nombre y fábrica de cada prototipo
+     * @param warmupRounds Clones de calentamiento por prototipo (para que el JIT compile clone())
+     */
+    public static <T extends Prototype<T>> PrototypeRegistry<T> prewarmed(Map<String, Supplier<T>> templates,
+                                                                         int warmupRounds) {
+        PrototypeRegistry<T> registry = new PrototypeRegistry<>();
+        templates.forEach((name, factory) -> registry.register(name, factory.get()));
+        registry.prewarm(warmupRounds);
+        return registry;
+    }
+
+    // Registra (o reemplaza) un prototipo; se guarda un clon para aislarlo del llamador
+    public void register(String name, T prototype) {
+        if (name == null || prototype == null) {
+            throw new IllegalArgumentException("El nombre y el prototipo no pueden ser nulos");
+        }
+        prototypes.put(name, prototype.clone());
+    }
+
+    public void unregister(String name) {
+        prototypes.remove(name);
+    }
+
+    public boolean contains(String name) {
+        return prototypes.containsKey(name);
+    }
+
+    public Set<String> names() {
+        return Set.copyOf(prototypes.keySet());
+    }
+
+    /**
+     * @param name Nombre del prototipo registrado
+     * @return Un clon nuevo del prototipo
+     */
+    public T create(String name) {
+        return lookup(name).clone();
+    }
+
+    /**
+     * Llena el arreglo completo con clones del prototipo indicado.
+     *
+     * @param name   Nombre del prototipo registrado
+     * @param target Arreglo a llenar
+     * @return El mismo arreglo recibido
+     */
+    public T[] fill(String name, T[] target) {
+        T prototype = lookup(name);
+        for (int i = 0; i < target.length; i++) {
+            target[i] = prototype.clone();
+        }
+        return target;
+    }
+
+    /**
+     * @param name      Nombre del prototipo registrado
+     * @param count     Cantidad de clones
+     * @param generator Constructor del arreglo, por ejemplo {@code Document[]::new}
+     * @return Arreglo nuevo con {@code count} clones
+     */
+    public T[] cloneMany(String name, int count, IntFunction<T[]> generator) {
+        return fill(name, generator.apply(count));
+    }
+
+    // Clona cada prototipo varias veces y descarta el resultado
+    public void prewarm(int rounds) {
+        for (T prototype : prototypes.values()) {
+            for (int i = 0; i < rounds; i++) {
+                prototype.clone();
+            }
+        }
+    }
+
+    private T lookup(String name) {
+        T prototype = prototypes.get(name);
+        if (prototype == null) {
+            throw new IllegalArgumentException("No existe un prototipo llamado '" + name + "'");
+        }
+        return prototype;
+    }
+}
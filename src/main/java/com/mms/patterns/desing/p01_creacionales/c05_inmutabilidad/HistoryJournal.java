@@ -0,0 +1,337 @@
+package com.mms.patterns.desing.p01_creacionales.c05_inmutabilidad;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * ! Diario (journal) del historial del editor
+ *
+ * Caso de uso:
+ * CodeEditorHistory escribe cada estado guardado en un archivo de solo anexado, mapeado en memoria,
+ * para que el historial de undo/redo sobreviva a un reinicio del editor.
+ *
+ * Formato: una cabecera (número mágico + versión) seguida de registros
+ * [longitud][CRC32][tipo][índice][datos]:
+ * - DELTA: la diferencia del estado con el anterior, su cursor y si tiene cambios sin guardar.
+ * - CHECKPOINT: el contenido completo de un estado, cada {@code checkpointInterval} estados.
+ * - POSITION: el índice actual después de un undo o un redo.
+ * Los textos se guardan como unidades UTF-16 (cantidad de char + los char): una diferencia puede
+ * cortar un par sustituto a la mitad, y en UTF-8 esa mitad se perdería.
+ *
+ * Tolerancia a fallos:
+ * la longitud de cada registro se escribe al final, así que un registro a medio escribir se lee
+ * como longitud 0 (fin del diario). Si el sistema cae con páginas a medio escribir, el CRC no coincide
+ * y la lectura se detiene en el último registro válido. Los estados que ningún checkpoint cubre (una
+ * caída entre el primer DELTA y su CHECKPOINT) también se descartan al abrir. Lo escrito en el mapeo sobrevive a la caída
+ * del proceso en cuanto se escribe; ante una caída del sistema operativo solo está garantizado
+ * lo escrito hasta el último force(), que se hace en cada checkpoint y al cerrar.
+ *
+ * Al abrir un diario existente solo se recorre el archivo para armar un índice de posiciones
+ * (8 bytes por estado): las diferencias se decodifican cuando el historial las pide.
+ */
+final class HistoryJournal implements AutoCloseable {
+
+    private static final int MAGIC = 0x4A524E4C;
+    // Versión 2: textos en UTF-16 (la 1 los guardaba en UTF-8)
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 8;
+    // Longitud + CRC de cada registro
+    private static final int RECORD_HEADER = 8;
+    private static final int INITIAL_CAPACITY = 1024 * 1024;
+
+    private static final byte DELTA = 1;
+    private static final byte CHECKPOINT = 2;
+    private static final byte POSITION = 3;
+
+    // Valores usados para guardar Integer/Boolean nulos
+    private static final int NULL_CURSOR = Integer.MIN_VALUE;
+    private static final byte NULL_BOOLEAN = 2;
+
+    private final FileChannel channel;
+    private final int checkpointInterval;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+
+    // Posición en el archivo del registro DELTA de cada estado vigente
+    private long[] deltaOffsets = new long[1024];
+    private int size;
+    // Índice del estado -> posición de su CHECKPOINT
+    private final TreeMap<Integer, Long> checkpoints = new TreeMap<>();
+    private int position = -1;
+
+    private HistoryJournal(FileChannel channel, int checkpointInterval) {
+        this.channel = channel;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Abre (o crea) un diario y recupera su índice.
+     *
+     * @param file               Archivo del diario
+     * @param checkpointInterval Cada cuántos estados se guarda el contenido completo
+     */
+    static HistoryJournal open(Path file, int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("El intervalo de checkpoints debe ser mayor a 0");
+        }
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            HistoryJournal journal = new HistoryJournal(channel, checkpointInterval);
+            journal.recover();
+            return journal;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo abrir el diario " + file, ex);
+        }
+    }
+
+    // Recorre los registros válidos y arma el índice; se detiene en el primero incompleto o corrupto
+    private void recover() throws IOException {
+        long fileSize = channel.size();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(fileSize, INITIAL_CAPACITY));
+
+        if (fileSize < HEADER_SIZE || buffer.getInt(0) == 0) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            writePosition = HEADER_SIZE;
+            return;
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("El archivo no es un diario del historial");
+        }
+
+        int pos = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        while (pos + RECORD_HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(pos);
+            if (length <= 0 || pos + RECORD_HEADER + (long) length > buffer.capacity()) break;
+
+            crc.reset();
+            crc.update(buffer.slice(pos + RECORD_HEADER, length));
+            if ((int) crc.getValue() != buffer.getInt(pos + 4)) break;
+
+            byte type = buffer.get(pos + RECORD_HEADER);
+            int index = buffer.getInt(pos + RECORD_HEADER + 1);
+            if (type == DELTA) {
+                if (index > size) break;
+                indexDelta(index, pos);
+            } else if (type == CHECKPOINT) {
+                checkpoints.put(index, (long) pos);
+            } else if (type == POSITION) {
+                position = index;
+            } else {
+                break;
+            }
+            pos += RECORD_HEADER + length;
+        }
+        // Si el proceso cayó entre el primer DELTA y su CHECKPOINT, ningún checkpoint cubre los estados:
+        // no se pueden reconstruir y se descartan como un registro a medio escribir
+        if (size > 0 && checkpoints.isEmpty()) {
+            pos = (int) deltaOffsets[0];
+            size = 0;
+            position = -1;
+        }
+        writePosition = pos;
+        // Lo que quede después (un registro a medio escribir) se sobrescribe con el siguiente anexado
+        if (writePosition + 4 <= buffer.capacity()) buffer.putInt(writePosition, 0);
+    }
+
+    // Un DELTA en el índice i descarta los estados >= i de una rama anterior (redo descartado)
+    private void indexDelta(int index, long offset) {
+        size = index;
+        checkpoints.tailMap(index, true).clear();
+        if (size == deltaOffsets.length) deltaOffsets = Arrays.copyOf(deltaOffsets, size * 2);
+        deltaOffsets[size++] = offset;
+        position = index;
+    }
+
+    /**
+     * Anexa un estado guardado. Cada {@code checkpointInterval} estados anexa también su contenido completo.
+     *
+     * @param index Índice absoluto del estado en el historial
+     * @param entry Diferencia con el estado anterior, cursor y cambios sin guardar
+     * @param state Estado completo (solo se usa para los checkpoints)
+     */
+    void append(int index, HistoryEntry entry, CodeEditorState state) {
+        if (index < 0 || index > size) {
+            throw new IllegalArgumentException("Índice fuera del diario: " + index);
+        }
+        ContentDelta delta = entry.getDelta();
+        String removed = delta.getRemoved();
+        String inserted = delta.getInserted();
+
+        ByteBuffer out = reserve(1 + 4 + 4 + stringSize(removed) + stringSize(inserted) + 4 + 1);
+        int recordStart = writePosition;
+        out.put(DELTA).putInt(index).putInt(delta.getStart());
+        putString(out, removed);
+        putString(out, inserted);
+        putState(out, entry.getCursorPosition(), entry.getUnsavedChanges());
+        commit(out);
+        indexDelta(index, recordStart);
+
+        if (index % checkpointInterval == 0) {
+            appendCheckpoint(index, state);
+        }
+    }
+
+    private void appendCheckpoint(int index, CodeEditorState state) {
+        String content = state.getContent();
+        ByteBuffer out = reserve(1 + 4 + stringSize(content) + 4 + 1);
+        long recordStart = writePosition;
+        out.put(CHECKPOINT).putInt(index);
+        putString(out, content);
+        putState(out, state.getCursorPosition(), state.isUnsavedChanges());
+        commit(out);
+        checkpoints.put(index, recordStart);
+        buffer.force();
+    }
+
+    /**
+     * Anota el índice actual tras un undo o un redo.
+     */
+    void appendPosition(int index) {
+        ByteBuffer out = reserve(1 + 4);
+        out.put(POSITION).putInt(index);
+        commit(out);
+        position = index;
+    }
+
+    // Devuelve una vista para escribir los datos del siguiente registro, ampliando el mapeo si hace falta
+    private ByteBuffer reserve(int payloadLength) {
+        long needed = (long) writePosition + RECORD_HEADER + payloadLength + 4;
+        if (needed > buffer.capacity()) {
+            long capacity = Math.max(needed, 2L * buffer.capacity());
+            if (capacity > Integer.MAX_VALUE) {
+                throw new IllegalStateException("El diario superó el tamaño máximo de un mapeo (2 GB)");
+            }
+            try {
+                buffer.force();
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("No se pudo ampliar el diario", ex);
+            }
+        }
+        return buffer.slice(writePosition + RECORD_HEADER, payloadLength);
+    }
+
+    // Escribe el fin de diario, el CRC y por último la longitud, que es lo que hace visible al registro
+    private void commit(ByteBuffer payload) {
+        int length = payload.capacity();
+        int end = writePosition + RECORD_HEADER + length;
+        buffer.putInt(end, 0);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.flip());
+        buffer.putInt(writePosition + 4, (int) crc.getValue());
+        buffer.putInt(writePosition, length);
+        writePosition = end;
+    }
+
+    private static int stringSize(String text) {
+        return 4 + 2 * text.length();
+    }
+
+    // Cantidad de char y los char tal cual, sin pasar por un Charset
+    private static void putString(ByteBuffer out, String text) {
+        out.putInt(text.length());
+        out.asCharBuffer().put(text);
+        out.position(out.position() + 2 * text.length());
+    }
+
+    private static void putState(ByteBuffer out, Integer cursorPosition, Boolean unsavedChanges) {
+        out.putInt(cursorPosition != null ? cursorPosition : NULL_CURSOR);
+        out.put(unsavedChanges == null ? NULL_BOOLEAN : (byte) (unsavedChanges ? 1 : 0));
+    }
+
+    /**
+     * @return La entrada del estado {@code index}, decodificada desde el archivo
+     */
+    HistoryEntry readEntry(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("No existe el estado " + index + " en el diario");
+        }
+        ByteBuffer in = payload(deltaOffsets[index]);
+        in.position(1 + 4);
+        int start = in.getInt();
+        String removed = readString(in);
+        String inserted = readString(in);
+        return new HistoryEntry(ContentDelta.of(start, removed, inserted), readCursor(in), readBoolean(in), 0);
+    }
+
+    /**
+     * @return El estado completo guardado en el checkpoint más cercano a {@code index} (sin pasarlo)
+     */
+    Map.Entry<Integer, CodeEditorState> checkpointAtOrBefore(int index) {
+        Map.Entry<Integer, Long> checkpoint = checkpoints.floorEntry(index);
+        if (checkpoint == null) {
+            throw new IllegalStateException("El diario no tiene checkpoints anteriores al estado " + index);
+        }
+        ByteBuffer in = payload(checkpoint.getValue());
+        in.position(1 + 4);
+        String content = readString(in);
+        return Map.entry(checkpoint.getKey(), new CodeEditorState(content, readCursor(in), readBoolean(in)));
+    }
+
+    private ByteBuffer payload(long recordStart) {
+        int start = (int) recordStart;
+        return buffer.slice(start + RECORD_HEADER, buffer.getInt(start));
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        char[] chars = new char[length];
+        in.asCharBuffer().get(chars);
+        in.position(in.position() + 2 * length);
+        return new String(chars);
+    }
+
+    private static Integer readCursor(ByteBuffer in) {
+        int cursor = in.getInt();
+        return cursor == NULL_CURSOR ? null : cursor;
+    }
+
+    private static Boolean readBoolean(ByteBuffer in) {
+        byte value = in.get();
+        return value == NULL_BOOLEAN ? null : value == 1;
+    }
+
+    /**
+     * @return Cantidad de estados vigentes en el diario
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return Índice del estado actual según el diario (-1 si está vacío)
+     */
+    int position() {
+        return position;
+    }
+
+    /**
+     * @return Bytes ocupados por los registros del diario
+     */
+    long bytesWritten() {
+        return writePosition;
+    }
+
+    @Override
+    public void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo cerrar el diario", ex);
+        }
+    }
+}
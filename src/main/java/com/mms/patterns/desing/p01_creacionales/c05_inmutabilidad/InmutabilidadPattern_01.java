@@ -8,24 +8,30 @@
 
 package com.mms.patterns.desing.p01_creacionales.c05_inmutabilidad;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.lang.ref.WeakReference;
+import java.util.Map;
 import java.util.Objects;
 
+import com.mms.patterns.desing.utils.Rope;
+
 import static com.mms.patterns.desing.utils.ConsoleColors.*;
 
 // Clase inmutable que representa el estado del editor de código
 final class CodeEditorState {
 
     // Atributos inmutables del estado
-    private final String content;
+    // El contenido es un Rope: las ediciones cuestan O(log n) y las copias comparten estructura
+    private final Rope content;
     private final Integer cursorPosition;
     private final Boolean unsavedChanges;
+    // Hash en caché: el estado es inmutable, así que se calcula una sola vez
+    private int hash;
+    private boolean hashIsZero;
 
 
     // Constructor que inicializa el estado del editor
-    public CodeEditorState(String content, Integer cursorPosition, Boolean unsavedChanges) {
-        this.content = content;
+    public CodeEditorState(CharSequence content, Integer cursorPosition, Boolean unsavedChanges) {
+        this.content = Rope.of(content);
         this.cursorPosition = cursorPosition;
         this.unsavedChanges = unsavedChanges;
     }
@@ -35,15 +41,46 @@ final class CodeEditorState {
      * Crea una copia del estado actual, permitiendo modificar solo los atributos deseados.
      * Es el mecanismo principal para "modificar" un objeto inmutable.
      */
-    public CodeEditorState copyWith(String content, Integer cursorPosition, Boolean unsavedChanges) {
+    public CodeEditorState copyWith(CharSequence content, Integer cursorPosition, Boolean unsavedChanges) {
         return new CodeEditorState(
-                content != null ? content : this.content,
+                content != null ? shareIfUnchanged(content) : this.content,
                 cursorPosition != null ? cursorPosition : this.cursorPosition,
                 unsavedChanges != null ? unsavedChanges : this.unsavedChanges
         );
     }
 
 
+    // Si el contenido nuevo es igual al actual se reutiliza el mismo Rope, así no se guarda dos veces.
+    // Los hashes en caché descartan casi todos los contenidos distintos sin comparar caracteres.
+    private CharSequence shareIfUnchanged(CharSequence text) {
+        if (text == content || text.length() != content.length()) return text;
+        if (text instanceof String string && string.hashCode() != content.hashCode()) return text;
+        if (text instanceof Rope rope && rope.hashCode() != content.hashCode()) return text;
+        return content.contentEquals(text) ? content : text;
+    }
+
+    // Mismo estado con otro cursor, compartiendo el contenido
+    CodeEditorState withState(Integer cursorPosition, Boolean unsavedChanges) {
+        if (Objects.equals(cursorPosition, this.cursorPosition) && Objects.equals(unsavedChanges, this.unsavedChanges)) {
+            return this;
+        }
+        return new CodeEditorState(content, cursorPosition, unsavedChanges);
+    }
+
+
+    /**
+     * Crea un nuevo estado reemplazando solo el rango [start, end) del contenido.
+     * Cuesta O(log n) y el nuevo estado comparte el resto del contenido con el actual.
+     */
+    public CodeEditorState edit(int start, int end, String text, Integer cursorPosition) {
+        return new CodeEditorState(
+                content.replace(start, end, text),
+                cursorPosition != null ? cursorPosition : this.cursorPosition,
+                true
+        );
+    }
+
+
     // Muestra el estado actual del editor por consola
     public void displayState() {
     System.out.println(GREEN + "Estado del editor: " + RESET);
@@ -58,6 +95,10 @@ final class CodeEditorState {
     }
 
     public String getContent() {
+        return content.toString();
+    }
+
+    public Rope getContentRope() {
         return content;
     }
 
@@ -84,96 +125,432 @@ final class CodeEditorState {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         CodeEditorState that = (CodeEditorState) o;
-        return cursorPosition == that.cursorPosition &&
-                unsavedChanges == that.unsavedChanges &&
+        if (hash != 0 && that.hash != 0 && hash != that.hash) return false;
+        // Se comparan por valor: con Integer/Boolean, == compara referencias
+        return Objects.equals(cursorPosition, that.cursorPosition) &&
+                Objects.equals(unsavedChanges, that.unsavedChanges) &&
                 content.equals(that.content);
     }
 
+    // El hash del Rope también está en caché por fragmento: en un estado editado solo se recalcula lo nuevo
     @Override
     public int hashCode() {
-        return Objects.hash(content, cursorPosition, unsavedChanges);
+        int h = hash;
+        if (h == 0 && !hashIsZero) {
+            h = Objects.hash(content, cursorPosition, unsavedChanges);
+            if (h == 0) {
+                hashIsZero = true;
+            } else {
+                hash = h;
+            }
+        }
+        return h;
     }
 }
 
-// Clase que mantiene el historial de estados del editor (undo/redo)
+// Diferencia compacta entre el contenido de dos estados consecutivos:
+// en la posición start se reemplazó "removed" por "inserted"
+final class ContentDelta {
+
+    static final ContentDelta NONE = new ContentDelta(0, "", "");
+
+    private final int start;
+    private final String removed;
+    private final String inserted;
+
+    private ContentDelta(int start, String removed, String inserted) {
+        this.start = start;
+        this.removed = removed;
+        this.inserted = inserted;
+    }
+
+    /**
+     * Calcula la diferencia recortando el prefijo y el sufijo comunes.
+     * Los fragmentos que ambas versiones comparten se saltan sin compararlos,
+     * así que el costo depende de lo editado y no del tamaño del archivo.
+     */
+    static ContentDelta between(Rope before, Rope after) {
+        int prefix = before.commonPrefixLength(after);
+        if (prefix == before.length() && prefix == after.length()) return NONE;
+
+        int max = Math.min(before.length(), after.length()) - prefix;
+        int suffix = before.commonSuffixLength(after, max);
+
+        return new ContentDelta(prefix,
+                before.subSequence(prefix, before.length() - suffix).toString(),
+                after.subSequence(prefix, after.length() - suffix).toString());
+    }
+
+    // Reconstruye una diferencia leída del diario del historial
+    static ContentDelta of(int start, String removed, String inserted) {
+        if (removed.isEmpty() && inserted.isEmpty()) return NONE;
+        return new ContentDelta(start, removed, inserted);
+    }
+
+    int getStart() { return start; }
+    String getRemoved() { return removed; }
+    String getInserted() { return inserted; }
+
+    // Aplica la diferencia hacia adelante (redo)
+    Rope apply(Rope content) {
+        if (this == NONE) return content;
+        return content.replace(start, start + removed.length(), inserted);
+    }
+
+    // Aplica la diferencia hacia atrás (undo)
+    Rope revert(Rope content) {
+        if (this == NONE) return content;
+        return content.replace(start, start + inserted.length(), removed);
+    }
+
+    // Tamaño aproximado en memoria: cabecera del objeto + caracteres guardados
+    long approximateBytes() {
+        return 32 + 2L * (removed.length() + inserted.length());
+    }
+}
+
+// Entrada del historial: cursor y cambios del estado, más la diferencia con el estado anterior
+final class HistoryEntry {
+
+    private final ContentDelta delta;
+    private final Integer cursorPosition;
+    private final Boolean unsavedChanges;
+    // Bytes acumulados de todas las entradas guardadas hasta esta (inclusive)
+    private final long cumulativeBytes;
+    // Contenido con el que se guardó el estado. No lo mantiene vivo: si quien lo creó lo sigue usando,
+    // undo/redo devuelven esa misma instancia en lugar de reconstruir una copia igual.
+    private final WeakReference<Rope> savedContent;
+
+    HistoryEntry(ContentDelta delta, Integer cursorPosition, Boolean unsavedChanges, long cumulativeBytes) {
+        this(delta, cursorPosition, unsavedChanges, cumulativeBytes, null);
+    }
+
+    HistoryEntry(ContentDelta delta, Integer cursorPosition, Boolean unsavedChanges, long cumulativeBytes,
+                 WeakReference<Rope> savedContent) {
+        this.delta = delta;
+        this.cursorPosition = cursorPosition;
+        this.unsavedChanges = unsavedChanges;
+        this.cumulativeBytes = cumulativeBytes;
+        this.savedContent = savedContent;
+    }
+
+    ContentDelta getDelta() { return delta; }
+    Integer getCursorPosition() { return cursorPosition; }
+    Boolean getUnsavedChanges() { return unsavedChanges; }
+    long getCumulativeBytes() { return cumulativeBytes; }
+
+    HistoryEntry withCumulativeBytes(long cumulativeBytes) {
+        return new HistoryEntry(delta, cursorPosition, unsavedChanges, cumulativeBytes, savedContent);
+    }
+
+    // El contenido original si todavía está en memoria, o null
+    Rope savedContent() {
+        return savedContent != null ? savedContent.get() : null;
+    }
+
+    // Contenido de este estado a partir del anterior
+    Rope contentAfter(Rope previous) {
+        Rope saved = savedContent();
+        return saved != null ? saved : delta.apply(previous);
+    }
+
+    // Entrada + referencia débil + diferencia
+    long approximateBytes() {
+        return 64 + delta.approximateBytes();
+    }
+}
+
+/**
+ * Clase que mantiene el historial de estados del editor (undo/redo).
+ *
+ * En lugar de guardar el contenido completo en cada cambio, guarda el primer estado completo
+ * (keyframe) y, para cada cambio, solo la diferencia con el estado anterior. El estado actual
+ * se conserva materializado; undo/redo aplican una sola diferencia sobre él (O(log n) con Rope),
+ * o devuelven el contenido original si todavía está en memoria.
+ *
+ * Las entradas viven en un buffer circular que puede acotarse por cantidad de estados o por
+ * un presupuesto aproximado de bytes. Cuando se supera el límite se descartan los estados más
+ * antiguos y el keyframe avanza. save, undo, redo y el descarte de los estados futuros
+ * no recorren el historial.
+ *
+ * Con un HistoryJournal, cada estado guardado se anexa también a un archivo. Al reiniciar, el
+ * historial se reconstruye desde el último checkpoint y los estados más antiguos (o los que se
+ * descartaron por el límite de memoria) se vuelven a leer del archivo solo si el undo llega a ellos.
+ */
 class CodeEditorHistory {
-    private List<CodeEditorState> history;
+    private HistoryEntry[] ring;
+    // Posición física del estado más antiguo (índice lógico 0)
+    private int head;
+    private int size;
     private Integer currentIndex;
 
+    private final int maxEntries;
+    private final long maxBytes;
+    // Total acumulado de bytes guardados desde la creación del historial
+    private long appendedBytes;
+
+    // Primer estado completo del historial
+    private CodeEditorState keyframe;
+    // Estado en currentIndex, ya reconstruido
+    private CodeEditorState current;
+
+    // Contadores de descarte
+    private long evictedEntries;
+    private long evictedBytes;
+    private long discardedRedoEntries;
+    private long deduplicatedStates;
+    private long sharedContents;
+
+    // Diario opcional en disco e índice absoluto del estado más antiguo en memoria
+    private final HistoryJournal journal;
+    private int base;
+    private long pagedInEntries;
+
+    // Estados que se leen del diario de una vez cuando el undo pasa el más antiguo en memoria
+    private static final int PAGE_SIZE = 64;
+
+    // Historial sin límite
     public CodeEditorHistory() {
-        this.history = new ArrayList<>();
-        this.currentIndex = -1;
+        this(Integer.MAX_VALUE, Long.MAX_VALUE);
     }
 
     /**
-     * Guarda un nuevo estado en el historial
+     * @param maxEntries Máximo de estados a conservar (al menos 1)
+     * @param maxBytes   Presupuesto aproximado en bytes para las diferencias guardadas
+     *                   (el keyframe comparte sus fragmentos con el estado actual y no se cuenta)
+     */
+    public CodeEditorHistory(int maxEntries, long maxBytes) {
+        this(maxEntries, maxBytes, null);
+    }
+
+    /**
+     * Crea un historial respaldado por un diario. Si el diario ya tiene estados, los recupera:
+     * carga en memoria desde el último checkpoint y deja el resto en el archivo.
      *
-     * @param state Estado del editor a guardar
+     * @param journal Diario donde se anexan los estados (null para no persistir)
      */
+    public CodeEditorHistory(int maxEntries, long maxBytes, HistoryJournal journal) {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("El historial debe admitir al menos un estado");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ring = new HistoryEntry[Math.min(maxEntries, 16)];
+        this.currentIndex = -1;
+        this.journal = journal;
+        if (journal != null && journal.size() > 0) recover();
+    }
+
+    public static CodeEditorHistory withJournal(HistoryJournal journal) {
+        return new CodeEditorHistory(Integer.MAX_VALUE, Long.MAX_VALUE, journal);
+    }
+
+    public static CodeEditorHistory withMaxEntries(int maxEntries) {
+        return new CodeEditorHistory(maxEntries, Long.MAX_VALUE);
+    }
+
+    public static CodeEditorHistory withByteBudget(long maxBytes) {
+        return new CodeEditorHistory(Integer.MAX_VALUE, maxBytes);
+    }
 
     /**
      * Guarda un nuevo estado en el historial.
      * Si se hace un cambio después de un undo, elimina los estados futuros.
+     * Un estado igual al actual no se guarda, y si solo cambia el cursor se reutiliza el contenido actual.
+     *
+     * @param state Estado del editor a guardar
      */
     public void save(CodeEditorState state) {
-        // Elimina los estados futuros si estamos en medio del historial
-        if (currentIndex < history.size() - 1) {
-            history.subList(currentIndex + 1, history.size()).clear();
+        if (current != null && current.equals(state)) {
+            deduplicatedStates++;
+            return;
         }
 
-        history.add(state);
+        // Elimina los estados futuros si estamos en medio del historial: basta con mover el final
+        if (currentIndex < size - 1) {
+            discardedRedoEntries += size - 1 - currentIndex;
+            for (int i = currentIndex + 1; i < size; i++) {
+                ring[physical(i)] = null;
+            }
+            size = currentIndex + 1;
+            // La suma acumulada sigue desde el estado actual: los bytes descartados no cuentan para el límite
+            appendedBytes = entry(currentIndex).getCumulativeBytes();
+        }
+
+        ContentDelta delta = current == null
+                ? ContentDelta.NONE
+                : ContentDelta.between(current.getContentRope(), state.getContentRope());
+        if (delta == ContentDelta.NONE && current != null && current.getContentRope() != state.getContentRope()) {
+            // Mismo texto en otra instancia: el estado guardado comparte el contenido que ya está en memoria
+            state = current.withState(state.getCursorPosition(), state.isUnsavedChanges());
+            sharedContents++;
+        }
+        HistoryEntry entry = new HistoryEntry(delta, state.getCursorPosition(), state.isUnsavedChanges(), 0,
+                new WeakReference<>(state.getContentRope()));
+        addLast(entry);
+        if (keyframe == null) keyframe = state;
+
+        current = state;
         currentIndex++;
+        if (journal != null) journal.append(base + currentIndex, entry, state);
+
+        evictIfNeeded();
     }
 
-    /**
-     * Deshace la última acción
-     *
-     * @return Estado anterior o null si no hay más acciones para deshacer
-     */
+    // Reconstruye el historial desde el diario: el checkpoint previo al estado actual y todo lo posterior
+    private void recover() {
+        int position = journal.position();
+        Map.Entry<Integer, CodeEditorState> checkpoint = journal.checkpointAtOrBefore(position);
+        base = checkpoint.getKey();
+        keyframe = checkpoint.getValue();
+
+        for (int i = base; i < journal.size(); i++) {
+            addLast(journal.readEntry(i));
+        }
+        currentIndex = position - base;
+        current = keyframe;
+        for (int i = 1; i <= currentIndex; i++) {
+            current = materialize(entry(i).contentAfter(current.getContentRope()), entry(i));
+        }
+        evictIfNeeded();
+    }
+
+    private void addLast(HistoryEntry entry) {
+        appendedBytes += entry.approximateBytes();
+        if (size == ring.length) grow();
+        ring[physical(size)] = entry.withCumulativeBytes(appendedBytes);
+        size++;
+    }
 
     /**
      * Deshace la última acción y retorna el estado anterior.
+     *
+     * @return Estado anterior o null si no hay más acciones para deshacer
      */
     public CodeEditorState undo() {
+        if (currentIndex == 0 && base > 0) pageIn();
         if (currentIndex > 0) {
+            HistoryEntry previous = entry(currentIndex - 1);
+            Rope content = previous.savedContent();
+            if (content == null) content = entry(currentIndex).getDelta().revert(current.getContentRope());
             currentIndex--;
-            return history.get(currentIndex);
+            current = materialize(content, previous);
+            if (journal != null) journal.appendPosition(base + currentIndex);
+            return current;
         }
         return null;
     }
 
     /**
-     * Rehace la última acción deshecha
+     * Rehace la última acción deshecha y retorna el estado siguiente.
      *
      * @return Estado siguiente o null si no hay más acciones para rehacer
      */
-
-    /**
-     * Rehace la última acción deshecha y retorna el estado siguiente.
-     */
     public CodeEditorState redo() {
-        if (currentIndex < history.size() - 1) {
+        if (currentIndex < size - 1) {
             currentIndex++;
-            return history.get(currentIndex);
+            HistoryEntry entry = entry(currentIndex);
+            current = materialize(entry.contentAfter(current.getContentRope()), entry);
+            if (journal != null) journal.appendPosition(base + currentIndex);
+            return current;
         }
         return null;
     }
 
+    // Lee del diario los estados anteriores al más antiguo en memoria, deshaciendo sus diferencias
+    // sobre el keyframe. Los límites de memoria se vuelven a aplicar en el siguiente save().
+    private void pageIn() {
+        if (journal == null) return;
+        int first = Math.max(0, base - PAGE_SIZE);
+        for (int i = base - 1; i >= first; i--) {
+            HistoryEntry oldest = entry(0);
+            HistoryEntry previous = journal.readEntry(i)
+                    .withCumulativeBytes(oldest.getCumulativeBytes() - oldest.approximateBytes());
+            keyframe = materialize(oldest.getDelta().revert(keyframe.getContentRope()), previous);
+
+            if (size == ring.length) grow();
+            head = (head - 1 + ring.length) % ring.length;
+            ring[head] = previous;
+            size++;
+            currentIndex++;
+            base--;
+            pagedInEntries++;
+        }
+    }
+
+    /**
+     * Reconstruye cualquier estado del historial aplicando las diferencias sobre el keyframe.
+     *
+     * @param index Índice del estado (0 = keyframe)
+     * @return Estado reconstruido
+     */
+    public CodeEditorState stateAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("No existe el estado " + index + " en el historial");
+        }
+        if (index == currentIndex) return current;
+
+        Rope content = keyframe.getContentRope();
+        for (int i = 1; i <= index; i++) {
+            content = entry(i).contentAfter(content);
+        }
+        return materialize(content, entry(index));
+    }
+
+    // Descarta los estados más antiguos mientras se supere algún límite (nunca el estado actual)
+    private void evictIfNeeded() {
+        while (currentIndex > 0 && (size > maxEntries || deltaBytes() > maxBytes)) {
+            HistoryEntry next = entry(1);
+            // El siguiente estado pasa a ser el keyframe
+            keyframe = materialize(next.contentAfter(keyframe.getContentRope()), next);
+
+            evictedBytes += next.approximateBytes();
+            evictedEntries++;
+            ring[head] = null;
+            head = physical(1);
+            size--;
+            currentIndex--;
+            base++;
+        }
+    }
+
+    // Duplica la capacidad del buffer copiando en orden lógico. No pasa de maxEntries + 1
+    // salvo cuando los estados leídos del diario ya lo superan.
+    private void grow() {
+        long capacity = Math.max(16L, 2L * ring.length);
+        if (size < maxEntries) capacity = Math.min(capacity, (long) maxEntries + 1);
+        HistoryEntry[] bigger = new HistoryEntry[(int) capacity];
+        for (int i = 0; i < size; i++) {
+            bigger[i] = entry(i);
+        }
+        ring = bigger;
+        head = 0;
+    }
+
+    private int physical(int logicalIndex) {
+        return (head + logicalIndex) % ring.length;
+    }
+
+    private HistoryEntry entry(int logicalIndex) {
+        return ring[physical(logicalIndex)];
+    }
+
+    private CodeEditorState materialize(Rope content, HistoryEntry entry) {
+        return new CodeEditorState(content, entry.getCursorPosition(), entry.getUnsavedChanges());
+    }
+
     /**
      * @return El estado actual del editor
      */
     public CodeEditorState getCurrentState() {
-        if (currentIndex >= 0 && currentIndex < history.size()) {
-            return history.get(currentIndex);
-        }
-        return null;
+        return current;
     }
 
     /**
      * @return Cantidad de estados en el historial
      */
     public int getHistorySize() {
-        return history.size();
+        return size;
     }
 
     /**
@@ -182,6 +559,72 @@ class CodeEditorHistory {
     public int getCurrentIndex() {
         return currentIndex;
     }
+
+    /**
+     * @return Índice del estado actual contando también los estados que solo están en el diario
+     */
+    public int getAbsoluteIndex() {
+        return base + currentIndex;
+    }
+
+    /**
+     * @return Estados no guardados por ser iguales al estado actual
+     */
+    public long getDeduplicatedStates() {
+        return deduplicatedStates;
+    }
+
+    /**
+     * @return Estados guardados que reutilizaron el contenido del estado anterior en lugar de una copia igual
+     */
+    public long getSharedContents() {
+        return sharedContents;
+    }
+
+    /**
+     * @return Estados leídos del diario al deshacer más allá de los que había en memoria
+     */
+    public long getPagedInEntries() {
+        return pagedInEntries;
+    }
+
+    /**
+     * @return Memoria aproximada del historial en bytes (keyframe + diferencias, sin el estado actual)
+     */
+    public long approximateBytes() {
+        if (size == 0) return 0;
+        return 2L * keyframe.getContentRope().length() + deltaBytes();
+    }
+
+    /**
+     * @return Bytes aproximados de las entradas y diferencias guardadas, sin el keyframe
+     */
+    public long deltaBytes() {
+        if (size == 0) return 0;
+        // La diferencia del keyframe no se usa: se cuentan las entradas 1..size-1 (la suma acumulada lo da en O(1))
+        return 32L + entry(size - 1).getCumulativeBytes() - entry(0).getCumulativeBytes();
+    }
+
+    /**
+     * @return Estados antiguos descartados por superar el límite de estados o de bytes
+     */
+    public long getEvictedEntries() {
+        return evictedEntries;
+    }
+
+    /**
+     * @return Bytes aproximados liberados al descartar estados antiguos
+     */
+    public long getEvictedBytes() {
+        return evictedBytes;
+    }
+
+    /**
+     * @return Estados futuros descartados al guardar después de un undo
+     */
+    public long getDiscardedRedoEntries() {
+        return discardedRedoEntries;
+    }
 }
 
 
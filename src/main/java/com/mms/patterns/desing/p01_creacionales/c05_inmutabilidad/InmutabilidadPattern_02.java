@@ -14,13 +14,14 @@ import static com.mms.patterns.desing.utils.ConsoleColors.*;
 class Player {
 
     // Atributos inmutables del jugador
+    // Puntaje y nivel como primitivos: cada cambio crea un solo objeto (el jugador), sin Integer de por medio
     private final String name;
-    private final Integer score;
-    private final Integer level;
+    private final int score;
+    private final int level;
 
 
     // Constructor que inicializa el estado del jugador
-    public Player(String name, Integer score, Integer level) {
+    public Player(String name, int score, int level) {
         this.name = name;
         this.score = score;
         this.level = level;
@@ -40,6 +41,40 @@ class Player {
     }
 
 
+    // Variantes sin boxing para los cambios frecuentes de puntaje y nivel
+    public Player withScore(int score) {
+        return new Player(name, score, level);
+    }
+
+    // Un puntaje que no entra en un int es un error, no un puntaje negativo
+    public Player addScore(int points) {
+        return new Player(name, Math.addExact(score, points), level);
+    }
+
+    public Player withLevel(int level) {
+        return new Player(name, score, level);
+    }
+
+
+    public String getName() {
+        return name;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+
+    @Override
+    public String toString() {
+        return name + " (puntaje " + score + ", nivel " + level + ")";
+    }
+
+
     // Muestra el estado actual del jugador por consola
     public void displayState() {
         System.out.println(GREEN + String.format("Jugador %s", this.name) + RESET);
@@ -0,0 +1,80 @@
+/**
+ * ! Inmutabilidad con historial de diferencias
+ * Guardar cada estado inmutable completo es simple, pero en archivos grandes la memoria crece
+ * como tamaño del archivo por número de cambios. Guardando solo lo que cambia entre estados
+ * consecutivos, el historial ocupa lo que ocupan las ediciones.
+ * <p>
+ * * Es útil para editores que manejan archivos grandes con muchos undo/redo.
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c05_inmutabilidad;
+
+import java.util.Random;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del historial con diferencias.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Se edita 10.000 veces un archivo de 5 MB (cambios de pocos caracteres) y se guarda cada
+ * estado en CodeEditorHistory. Se reporta la memoria aproximada del historial frente a guardar
+ * el contenido completo de cada estado, el costo de editar un String frente a un Rope
+ * y la latencia de undo/redo.
+ */
+public class InmutabilidadPattern_03 {
+
+    private static final int FILE_SIZE = 5 * 1024 * 1024;
+    private static final int EDITS = 10_000;
+    private static final int UNDOS = 500;
+    private static final int STRING_EDITS = 200;
+
+    public static void main(String[] args) {
+        Random random = new Random(7);
+        CodeEditorHistory history = new CodeEditorHistory();
+
+        CodeEditorState state = new CodeEditorState("a".repeat(FILE_SIZE), 0, false);
+        history.save(state);
+
+        // Costo de una edición copiando el String completo frente a editar el Rope
+        String flat = state.getContent();
+        long start = System.nanoTime();
+        for (int i = 0; i < STRING_EDITS; i++) {
+            int at = random.nextInt(flat.length() - 16);
+            flat = flat.substring(0, at) + "edit" + i + flat.substring(at + 4);
+        }
+        double stringEditMillis = (System.nanoTime() - start) / 1_000_000.0 / STRING_EDITS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < EDITS; i++) {
+            int at = random.nextInt(state.getContentRope().length() - 16);
+            state = state.edit(at, at + 4, "edit" + i, at);
+            history.save(state);
+        }
+        double saveMillis = (System.nanoTime() - start) / 1_000_000.0 / EDITS;
+
+        long deltaBytes = history.approximateBytes();
+        long fullBytes = 2L * FILE_SIZE * history.getHistorySize();
+
+        System.out.println(GREEN + "Historial de " + history.getHistorySize() + " estados (archivo de 5 MB):" + RESET);
+        System.out.println(String.format("%-28s %12.1f MB", "Estados completos (estimado)", fullBytes / 1_048_576.0));
+        System.out.println(String.format("%-28s %12.1f MB", "Keyframe + diferencias", deltaBytes / 1_048_576.0));
+        System.out.println(String.format("%-28s %12.3f ms", "edición copiando el String", stringEditMillis));
+        System.out.println(String.format("%-28s %12.3f ms", "edit() + save() promedio", saveMillis));
+
+        CodeEditorState latest = history.getCurrentState();
+        start = System.nanoTime();
+        for (int i = 0; i < UNDOS; i++) history.undo();
+        double undoMillis = (System.nanoTime() - start) / 1_000_000.0 / UNDOS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < UNDOS; i++) history.redo();
+        double redoMillis = (System.nanoTime() - start) / 1_000_000.0 / UNDOS;
+
+        System.out.println(String.format("%-28s %12.3f ms", "undo() promedio", undoMillis));
+        System.out.println(String.format("%-28s %12.3f ms", "redo() promedio", redoMillis));
+        System.out.println(YELLOW + "¿El estado tras undo+redo es igual al último? " + RESET
+                + latest.equals(history.getCurrentState()));
+    }
+}
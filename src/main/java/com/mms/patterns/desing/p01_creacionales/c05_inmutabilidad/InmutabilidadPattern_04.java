@@ -0,0 +1,104 @@
+/**
+ * ! Inmutabilidad con historial acotado
+ * Un historial de undo/redo sin límite crece mientras el usuario siga editando. Con un buffer
+ * circular acotado por cantidad de estados o por memoria, los estados más antiguos se descartan
+ * y guardar, deshacer, rehacer o descartar los estados futuros cuesta lo mismo sin importar
+ * el tamaño del historial.
+ * <p>
+ * * Es útil para editores que quedan abiertos durante horas con miles de cambios.
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c05_inmutabilidad;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del historial acotado.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * 1. Un historial de 5 estados: al guardar el sexto se descarta el más antiguo.
+ * 2. Un historial con presupuesto de 64 KB que recibe 2.000 ediciones de 1 KB.
+ * 3. Guardar después de deshacer: los estados futuros se descartan sin recorrerlos.
+ * 4. Deshacer y guardar con presupuesto de bytes: los estados futuros descartados dejan de contar,
+ *    y el historial queda igual que uno que nunca los guardó.
+ */
+public class InmutabilidadPattern_04 {
+
+    public static void main(String[] args) {
+        // 1. Límite por cantidad de estados
+        CodeEditorHistory byEntries = CodeEditorHistory.withMaxEntries(5);
+        CodeEditorState state = new CodeEditorState("", 0, false);
+        for (int i = 1; i <= 8; i++) {
+            state = state.edit(state.getContentRope().length(), state.getContentRope().length(), "v" + i + " ", null);
+            byEntries.save(state);
+        }
+        System.out.println(GREEN + "Historial de máximo 5 estados tras 8 cambios:" + RESET);
+        System.out.println("  Estados: " + byEntries.getHistorySize() + ", descartados: " + byEntries.getEvictedEntries());
+        System.out.println("  Estado más antiguo: " + byEntries.stateAt(0).getContent());
+        while (byEntries.undo() != null) {
+        }
+        System.out.println("  Tras deshacer todo:  " + byEntries.getCurrentState().getContent());
+
+        // 2. Límite por memoria aproximada
+        CodeEditorHistory byBytes = CodeEditorHistory.withByteBudget(64 * 1024);
+        state = new CodeEditorState("código inicial\n", 0, false);
+        byBytes.save(state);
+        String line = "x".repeat(511) + "\n";
+        for (int i = 0; i < 2_000; i++) {
+            state = state.edit(state.getContentRope().length(), state.getContentRope().length(), line, null);
+            byBytes.save(state);
+        }
+        System.out.println(GREEN + "\nHistorial con presupuesto de 64 KB tras 2.000 ediciones de 1 KB:" + RESET);
+        System.out.println("  Estados conservados: " + byBytes.getHistorySize());
+        System.out.println("  Diferencias:         " + byBytes.deltaBytes() / 1024 + " KB");
+        System.out.println("  Estados descartados: " + byBytes.getEvictedEntries()
+                + " (" + byBytes.getEvictedBytes() / 1024 + " KB liberados)");
+
+        // 3. Descartar los estados futuros es O(1)
+        CodeEditorHistory redo = new CodeEditorHistory();
+        state = new CodeEditorState("a", 0, false);
+        redo.save(state);
+        for (int i = 0; i < 100_000; i++) {
+            state = state.edit(0, 1, i % 2 == 0 ? "b" : "a", 0);
+            redo.save(state);
+        }
+        for (int i = 0; i < 99_999; i++) redo.undo();
+
+        long start = System.nanoTime();
+        redo.save(redo.getCurrentState().edit(0, 1, "z", 0));
+        double saveMicros = (System.nanoTime() - start) / 1_000.0;
+
+        System.out.println(GREEN + "\nGuardar tras deshacer 99.999 cambios:" + RESET);
+        System.out.println("  Estados futuros descartados: " + redo.getDiscardedRedoEntries());
+        System.out.println(String.format("  save() tardó %.1f µs; estados: %d", saveMicros, redo.getHistorySize()));
+
+        // 4. Deshacer y guardar con presupuesto: mismo resultado que sin los estados futuros
+        CodeEditorState start4 = new CodeEditorState("", 0, false);
+        CodeEditorHistory undone = CodeEditorHistory.withByteBudget(20_000);
+        CodeEditorHistory direct = CodeEditorHistory.withByteBudget(20_000);
+        undone.save(start4);
+        direct.save(start4);
+        state = start4;
+        for (int i = 0; i < 60; i++) {
+            state = state.edit(state.getContentRope().length(), state.getContentRope().length(), "línea " + i + "\n", null);
+            undone.save(state);
+            if (i < 30) direct.save(state);
+        }
+        for (int i = 0; i < 30; i++) undone.undo();
+        state = undone.getCurrentState();
+        for (int i = 0; i < 5; i++) {
+            state = state.edit(0, 0, "// nota " + i + "\n", null);
+            undone.save(state);
+            direct.save(state);
+        }
+        System.out.println(GREEN + "\nPresupuesto de 20.000 bytes: 60 cambios, 30 undo y 5 cambios nuevos:" + RESET);
+        System.out.println("  Estados: " + undone.getHistorySize() + ", diferencias: " + undone.deltaBytes()
+                + " bytes, descartados: " + undone.getEvictedEntries());
+        System.out.println("  Sin los estados futuros: " + direct.getHistorySize() + " estados, "
+                + direct.deltaBytes() + " bytes");
+        if (undone.deltaBytes() != direct.deltaBytes() || undone.getHistorySize() != direct.getHistorySize()) {
+            throw new IllegalStateException("Los estados futuros descartados siguen contando para el presupuesto");
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * ! Inmutabilidad con historial persistente
+ * Los estados inmutables y sus diferencias se pueden anexar a un archivo sin reescribir nada:
+ * un estado guardado nunca cambia. Con un diario mapeado en memoria el historial de undo/redo
+ * sobrevive a que el editor se cierre de golpe, y al reabrirlo solo se carga lo reciente.
+ * <p>
+ * * Es útil para editores que deben conservar el undo entre sesiones o tras una caída.
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c05_inmutabilidad;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del historial con diario.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * 1. Se edita 3.000 veces un archivo de 1 MB con un historial de 200 estados en memoria
+ *    y un diario con un checkpoint cada 500 estados. Se deshacen 30 cambios.
+ * 2. Se simula una caída: el diario no se cierra y queda un registro a medio escribir al final.
+ * 3. Se reabre el diario: el historial recupera el estado actual cargando solo desde el último
+ *    checkpoint, y al deshacer 2.500 cambios lee del archivo los estados más antiguos.
+ * 4. Se simula una caída justo después del primer registro (antes de su checkpoint): el diario
+ *    se reabre vacío y se puede seguir usando.
+ */
+public class InmutabilidadPattern_05 {
+
+    private static final int FILE_SIZE = 1024 * 1024;
+    private static final int EDITS = 3_000;
+    private static final int CHECKPOINT_INTERVAL = 500;
+    private static final int MAX_ENTRIES = 200;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("editor-history", ".journal");
+        Random random = new Random(11);
+
+        // 1. Sesión original: se guarda cada estado para poder comprobar la recuperación
+        CodeEditorState[] states = new CodeEditorState[EDITS + 1];
+        HistoryJournal journal = HistoryJournal.open(file, CHECKPOINT_INTERVAL);
+        CodeEditorHistory history = new CodeEditorHistory(MAX_ENTRIES, Long.MAX_VALUE, journal);
+
+        CodeEditorState state = new CodeEditorState("a".repeat(FILE_SIZE), 0, false);
+        states[0] = state;
+        history.save(state);
+        long start = System.nanoTime();
+        for (int i = 1; i <= EDITS; i++) {
+            int at = random.nextInt(FILE_SIZE - 16);
+            state = state.edit(at, at + 4, "edit" + i, at);
+            states[i] = state;
+            history.save(state);
+        }
+        double saveMillis = (System.nanoTime() - start) / 1_000_000.0 / EDITS;
+        for (int i = 0; i < 30; i++) history.undo();
+
+        System.out.println(GREEN + "Sesión original:" + RESET);
+        System.out.println(String.format("  save() con diario: %.3f ms promedio", saveMillis));
+        System.out.println("  Estado actual: " + history.getAbsoluteIndex() + ", en memoria: " + history.getHistorySize()
+                + ", diario: " + journal.bytesWritten() / 1024 + " KB");
+
+        // 2. Caída: no se llama a close() y queda basura al final del diario
+        simulateTornWrite(file, journal.bytesWritten());
+
+        // 3. Reinicio
+        start = System.nanoTime();
+        HistoryJournal reopened = HistoryJournal.open(file, CHECKPOINT_INTERVAL);
+        CodeEditorHistory recovered = new CodeEditorHistory(MAX_ENTRIES, Long.MAX_VALUE, reopened);
+        double recoverMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        int index = recovered.getAbsoluteIndex();
+        System.out.println(GREEN + "\nTras reiniciar:" + RESET);
+        System.out.println(String.format("  Recuperación: %.1f ms, estados en memoria: %d",
+                recoverMillis, recovered.getHistorySize()));
+        System.out.println("  Estado actual: " + index + ", igual al de antes de la caída: "
+                + states[index].equals(recovered.getCurrentState()));
+
+        CodeEditorState[] undone = new CodeEditorState[2_500];
+        start = System.nanoTime();
+        for (int i = 0; i < undone.length; i++) undone[i] = recovered.undo();
+        double undoMillis = (System.nanoTime() - start) / 1_000_000.0 / undone.length;
+
+        // Se compara fuera de la medición: equals sobre contenidos distintos recorre el archivo completo
+        boolean allEqual = true;
+        for (int i = 0; i < undone.length; i++) allEqual &= states[index - 1 - i].equals(undone[i]);
+
+        System.out.println(YELLOW + "\nDeshaciendo 2.500 cambios después del reinicio:" + RESET);
+        System.out.println("  Estados leídos del diario: " + recovered.getPagedInEntries());
+        System.out.println(String.format("  undo() promedio: %.3f ms", undoMillis));
+        System.out.println("  ¿Todos los estados coinciden con la sesión original? " + allEqual);
+
+        reopened.close();
+        Files.deleteIfExists(file);
+
+        // 4. Caída entre el primer estado y su checkpoint
+        Path first = Files.createTempFile("editor-history", ".journal");
+        try (HistoryJournal journalOne = HistoryJournal.open(first, CHECKPOINT_INTERVAL)) {
+            new CodeEditorHistory(MAX_ENTRIES, Long.MAX_VALUE, journalOne).save(new CodeEditorState("inicio", 0, false));
+        }
+        truncateAfterFirstRecord(first);
+        try (HistoryJournal journalTwo = HistoryJournal.open(first, CHECKPOINT_INTERVAL)) {
+            CodeEditorHistory empty = new CodeEditorHistory(MAX_ENTRIES, Long.MAX_VALUE, journalTwo);
+            System.out.println(GREEN + "\nCaída antes del primer checkpoint:" + RESET);
+            System.out.println("  Estados recuperados: " + empty.getHistorySize());
+            empty.save(new CodeEditorState("de nuevo", 0, false));
+        }
+        try (HistoryJournal journalThree = HistoryJournal.open(first, CHECKPOINT_INTERVAL)) {
+            CodeEditorState again = CodeEditorHistory.withJournal(journalThree).getCurrentState();
+            System.out.println("  Tras guardar y reabrir: " + (again != null ? again.getContent() : null));
+            if (again == null || !again.getContent().equals("de nuevo")) {
+                throw new IllegalStateException("El diario no se pudo reabrir después de la caída");
+            }
+        }
+        Files.deleteIfExists(first);
+    }
+
+    // Deja en el archivo solo la cabecera y el primer registro (el DELTA del estado 0, sin su CHECKPOINT)
+    private static void truncateAfterFirstRecord(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            channel.read(length, 8);
+            channel.truncate(8 + 8 + length.flip().getInt());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Escribe un registro con longitud pero datos y CRC inválidos, como si el proceso muriera a mitad
+    private static void simulateTornWrite(Path file, long end) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(12).putInt(500).putInt(0xBAD).putInt(42).flip();
+            channel.write(torn, end);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
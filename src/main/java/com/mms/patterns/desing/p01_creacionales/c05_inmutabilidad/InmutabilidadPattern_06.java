@@ -0,0 +1,106 @@
+/**
+ * ! Inmutabilidad con hash en caché y contenido compartido
+ * Un objeto inmutable puede calcular su hash una sola vez y guardarlo. Si además dos estados con
+ * el mismo texto apuntan a la misma instancia del contenido, compararlos es inmediato y el texto
+ * no se guarda dos veces.
+ * <p>
+ * * Es útil cuando los estados se usan como claves de mapas o caches, o cuando muchos
+ * * cambios solo mueven el cursor.
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c05_inmutabilidad;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del hash en caché y de la deduplicación del historial.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * 1. Un HashMap con 1.000 versiones de un archivo de 1 MB encuentra cada versión usando como clave
+ *    los estados que devuelve undo (comparten el contenido original) y estados con una copia del texto.
+ * 2. Historial con 10.000 operaciones donde la mayoría solo mueve el cursor o repite el estado.
+ *
+ * El costo del hash de un estado recién editado y de cada búsqueda se mide en StateHashBenchmark
+ * (src/jmh, perfil bench).
+ */
+public class InmutabilidadPattern_06 {
+
+    private static final int FILE_SIZE = 1024 * 1024;
+    private static final int VERSIONS = 1_000;
+    private static final int OPERATIONS = 10_000;
+
+    public static void main(String[] args) {
+        Random random = new Random(3);
+        CodeEditorState base = new CodeEditorState("a".repeat(FILE_SIZE), 0, false);
+
+        // 1. HashMap de versiones, consultado con estados reconstruidos por undo
+        CodeEditorHistory history = new CodeEditorHistory();
+        Map<CodeEditorState, Integer> versions = new HashMap<>();
+        CodeEditorState state = base;
+        history.save(state);
+        versions.put(state, 0);
+        for (int i = 1; i < VERSIONS; i++) {
+            int at = random.nextInt(FILE_SIZE - 16);
+            state = state.edit(at, at + 4, "v" + i, at);
+            history.save(state);
+            versions.put(state, i);
+        }
+        CodeEditorState[] keys = undoKeys(history, VERSIONS);
+        for (int i = 0; i < VERSIONS; i++) {
+            if (versions.get(keys[i]) != i) {
+                throw new IllegalStateException("No se encontró la versión " + i + " con la clave devuelta por undo");
+            }
+        }
+
+        // Mismo texto en otra instancia (por ejemplo, leído de nuevo desde disco): hay que comparar caracteres
+        for (int i = 0; i < VERSIONS; i += VERSIONS / 100) {
+            CodeEditorState copy = new CodeEditorState(keys[i].getContent(), keys[i].getCursorPosition(), keys[i].isUnsavedChanges());
+            if (versions.get(copy) != i) {
+                throw new IllegalStateException("No se encontró la versión " + i + " con el texto copiado");
+            }
+        }
+        System.out.println(GREEN + "HashMap con " + VERSIONS + " versiones de 1 MB:" + RESET
+                + " se encontraron todas con las claves de undo y con 100 copias del texto");
+
+        // 2. Historial con movimientos de cursor y estados repetidos
+        CodeEditorHistory editor = new CodeEditorHistory();
+        state = base;
+        editor.save(state);
+        int edits = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            int roll = random.nextInt(10);
+            if (roll < 6) {
+                // Movimiento de cursor: quien llama vuelve a pasar el texto como String
+                state = state.copyWith(state.getContent(), random.nextInt(FILE_SIZE), null);
+            } else if (roll < 8) {
+                // Autoguardado que repite el estado actual
+                state = state.copyWith(null, null, null);
+            } else {
+                int at = random.nextInt(FILE_SIZE - 16);
+                state = state.edit(at, at + 4, "edit", at);
+                edits++;
+            }
+            editor.save(state);
+        }
+        System.out.println(GREEN + "\nHistorial con " + OPERATIONS + " operaciones (" + edits + " ediciones):" + RESET);
+        System.out.println("  Estados guardados:             " + editor.getHistorySize());
+        System.out.println("  Estados repetidos omitidos:    " + editor.getDeduplicatedStates());
+        System.out.println("  Contenidos reutilizados:       " + editor.getSharedContents());
+        System.out.println("  Memoria de las diferencias:    " + editor.deltaBytes() / 1024 + " KB");
+        System.out.println(YELLOW + "  ¿El estado actual comparte el contenido con el último guardado? " + RESET
+                + (editor.getCurrentState().getContentRope() == editor.stateAt(editor.getCurrentIndex()).getContentRope()));
+    }
+
+    // Claves de cada versión reconstruidas con undo desde la última: keys[i] es la versión i
+    static CodeEditorState[] undoKeys(CodeEditorHistory history, int versions) {
+        CodeEditorState[] keys = new CodeEditorState[versions];
+        keys[versions - 1] = history.getCurrentState();
+        for (int i = versions - 2; i >= 0; i--) keys[i] = history.undo();
+        return keys;
+    }
+}
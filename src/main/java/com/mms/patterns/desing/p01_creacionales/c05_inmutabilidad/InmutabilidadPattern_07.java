@@ -0,0 +1,138 @@
+/**
+ * ! Inmutabilidad con estado compartido entre hilos
+ * Un objeto inmutable se puede publicar entre hilos sin sincronización: basta con reemplazar
+ * la referencia de forma atómica. Cada actualización crea un valor nuevo y lo instala con
+ * compareAndSet; si otro hilo ganó la carrera, se vuelve a aplicar el cambio sobre el valor nuevo.
+ * <p>
+ * * Es útil para tablas de posiciones, contadores o configuraciones que muchos hilos
+ * * leen y actualizan a la vez.
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c05_inmutabilidad;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.mms.patterns.desing.utils.Sleep;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa de la tabla de posiciones concurrente.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * 1. Una tabla pequeña: cambios de puntaje, top 3 y posición de un jugador, también con un puntaje muy alto.
+ * 2. 100.000 jugadores actualizados por 1, 2, 4 y 8 hilos durante un segundo, mientras otro hilo
+ *    consulta el top 10 y la posición de jugadores al azar. Se reportan actualizaciones y consultas por segundo.
+ * 3. Al terminar se comparan el top 10 y las posiciones con un cálculo directo sobre todos los jugadores.
+ */
+public class InmutabilidadPattern_07 {
+
+    private static final int PLAYERS = 100_000;
+    private static final int DURATION_MILLIS = 1_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        // 1. Ejemplo pequeño
+        Leaderboard small = new Leaderboard();
+        for (String name : List.of("Ana", "Luis", "Carlos", "Marta")) small.register(new Player(name, 0, 1));
+        small.addScore("Ana", 50);
+        small.addScore("Luis", 80);
+        small.addScore("Carlos", 50);
+        small.update("Marta", player -> player.withScore(20).withLevel(3));
+        System.out.println(GREEN + "Top 3: " + RESET + small.top(3));
+        System.out.println(GREEN + "Posición de Carlos: " + RESET + small.rankOf("Carlos") + " (empatado con Ana)");
+        // Sin tope de puntaje: la posición depende solo de cuántos jugadores hay
+        small.addScore("Marta", 2_000_000_000);
+        System.out.println(GREEN + "Posición de Marta con 2.000.000.020 puntos: " + RESET + small.rankOf("Marta"));
+
+        // 2. Rendimiento con muchos jugadores
+        Leaderboard leaderboard = new Leaderboard();
+        String[] names = new String[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            names[i] = "jugador-" + i;
+            leaderboard.register(new Player(names[i], 0, 1));
+        }
+
+        System.out.println(GREEN + "\n" + PLAYERS + " jugadores (" + Runtime.getRuntime().availableProcessors()
+                + " procesadores disponibles):" + RESET);
+        System.out.println(String.format("%-8s %18s %18s", "hilos", "actualizaciones/s", "consultas/s"));
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            run(leaderboard, names, threads);
+        }
+
+        // 3. Verificación contra un cálculo directo
+        int[] scores = new int[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) scores[i] = leaderboard.get(names[i]).getScore();
+        int[] sorted = scores.clone();
+        Arrays.sort(sorted);
+
+        List<Player> top = leaderboard.top(10);
+        boolean topOk = top.size() == 10;
+        for (int i = 0; i < top.size(); i++) topOk &= top.get(i).getScore() == sorted[PLAYERS - 1 - i];
+
+        boolean ranksOk = true;
+        for (int i = 0; i < 1_000; i++) {
+            int player = ThreadLocalRandom.current().nextInt(PLAYERS);
+            int above = PLAYERS - upperBound(sorted, scores[player]);
+            ranksOk &= leaderboard.rankOf(names[player]) == 1 + above;
+        }
+        System.out.println(YELLOW + "\n¿El top 10 coincide con ordenar todos los puntajes? " + RESET + topOk);
+        System.out.println(YELLOW + "¿Las posiciones coinciden con el cálculo directo? " + RESET + ranksOk);
+        System.out.println("Primero: " + top.get(0));
+    }
+
+    private static void run(Leaderboard leaderboard, String[] names, int threads) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder updates = new LongAdder();
+        LongAdder queries = new LongAdder();
+
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            writers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                while (running.get()) {
+                    leaderboard.addScore(names[random.nextInt(names.length)], 1 + random.nextInt(10));
+                    done++;
+                }
+                updates.add(done);
+            });
+        }
+        Thread reader = new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long done = 0;
+            while (running.get()) {
+                leaderboard.top(10);
+                leaderboard.rankOf(names[random.nextInt(names.length)]);
+                done++;
+            }
+            queries.add(done);
+        });
+
+        for (Thread writer : writers) writer.start();
+        reader.start();
+        Sleep.sleep(DURATION_MILLIS);
+        running.set(false);
+        for (Thread writer : writers) writer.join();
+        reader.join();
+
+        double seconds = DURATION_MILLIS / 1_000.0;
+        System.out.println(String.format("%-8d %18.0f %18.0f", threads, updates.sum() / seconds, queries.sum() / seconds));
+    }
+
+    // Primera posición con un valor mayor a value
+    private static int upperBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,309 @@
+package com.mms.patterns.desing.p01_creacionales.c05_inmutabilidad;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * ! Tabla de posiciones concurrente sobre jugadores inmutables
+ *
+ * Caso de uso:
+ * Muchos hilos actualizan puntajes a la vez. Cada jugador vive en un AtomicReference y se actualiza
+ * creando un Player nuevo y reemplazándolo con compareAndSet, sin bloquear al resto de jugadores.
+ *
+ * Índices de ranking:
+ * - Un ConcurrentSkipListMap ordenado por puntaje (mayor primero) y, a igual puntaje, por orden de
+ *   registro: top-K en O(log n + K). Desempatar con un entero evita comparar nombres en cada nivel.
+ * - Un árbol de estadísticas de orden (treap con el tamaño de cada subárbol) con la misma clave:
+ *   la posición de un jugador es 1 + cantidad de jugadores con más puntos, en O(log n) según la
+ *   cantidad de jugadores y sin importar el rango de puntajes. Los empates comparten posición.
+ *   Los cambios toman su lock de escritura y las consultas el de lectura.
+ *
+ * Tras cada cambio, el índice se sincroniza con el valor más reciente del jugador. Si otro hilo ya lo
+ * está sincronizando, solo se marca como pendiente y ese hilo vuelve a sincronizar: varias
+ * actualizaciones seguidas del mismo jugador se reflejan en el índice con un solo movimiento.
+ * Las consultas ven el índice tal como está en ese momento (puede ir unos microsegundos atrás).
+ */
+final class Leaderboard {
+
+    private final ConcurrentHashMap<String, Entry> players = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<RankKey, Player> ranking = new ConcurrentSkipListMap<>();
+    private final RankTree ranks = new RankTree();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Registra un jugador nuevo.
+     */
+    void register(Player player) {
+        Entry entry = new Entry(nextId.getAndIncrement(), player);
+        if (players.putIfAbsent(player.getName(), entry) != null) {
+            throw new IllegalArgumentException("El jugador ya está registrado: " + player.getName());
+        }
+        publish(entry);
+    }
+
+    /**
+     * Aplica un cambio al jugador: crea el nuevo Player a partir del actual y lo reemplaza atómicamente.
+     * Si otro hilo cambió el jugador entre medio, el cambio se vuelve a aplicar sobre el valor nuevo.
+     *
+     * @return El jugador actualizado
+     */
+    Player update(String name, UnaryOperator<Player> change) {
+        Entry entry = entry(name);
+        Player current;
+        Player updated;
+        do {
+            current = entry.player.get();
+            updated = change.apply(current);
+            if (!current.getName().equals(updated.getName())) {
+                throw new IllegalArgumentException("Un cambio de puntaje no puede renombrar al jugador");
+            }
+        } while (!entry.player.compareAndSet(current, updated));
+
+        publish(entry);
+        return updated;
+    }
+
+    Player addScore(String name, int points) {
+        return update(name, player -> player.addScore(points));
+    }
+
+    Player get(String name) {
+        return entry(name).player.get();
+    }
+
+    /**
+     * @return Los k mejores jugadores, de mayor a menor puntaje
+     */
+    List<Player> top(int k) {
+        List<Player> result = new ArrayList<>(Math.min(k, 64));
+        for (Map.Entry<RankKey, Player> ranked : ranking.entrySet()) {
+            if (result.size() == k) break;
+            Player player = ranked.getValue();
+            // Mientras se mueve un jugador puede aparecer dos veces: vale solo la posición indexada
+            if (entry(player.getName()).indexed == player) result.add(player);
+        }
+        return result;
+    }
+
+    /**
+     * @return Posición del jugador (1 = primero; los empates comparten posición)
+     */
+    int rankOf(String name) {
+        Player indexed = entry(name).indexed;
+        return 1 + ranks.countAbove(indexed.getScore());
+    }
+
+    int size() {
+        return players.size();
+    }
+
+    // Sincroniza el índice con el valor actual del jugador, una sola vez aunque lleguen varios cambios
+    private void publish(Entry entry) {
+        entry.dirty.set(true);
+        while (entry.dirty.get() && entry.lock.tryLock()) {
+            try {
+                entry.dirty.set(false);
+                reindex(entry, entry.player.get());
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    private void reindex(Entry entry, Player latest) {
+        Player previous = entry.indexed;
+        if (previous == latest) return;
+
+        RankKey newKey = new RankKey(latest.getScore(), entry.id);
+        // Primero se agrega la nueva posición y después se quita la vieja: el jugador nunca desaparece
+        ranking.put(newKey, latest);
+        if (previous == null || previous.getScore() != latest.getScore()) {
+            ranks.move(entry.rank, latest.getScore());
+        }
+        entry.indexed = latest;
+
+        if (previous != null) {
+            if (previous.getScore() != latest.getScore()) {
+                ranking.remove(new RankKey(previous.getScore(), entry.id), previous);
+            }
+        }
+    }
+
+    private Entry entry(String name) {
+        Entry entry = players.get(name);
+        if (entry == null) {
+            throw new IllegalArgumentException("Jugador no registrado: " + name);
+        }
+        return entry;
+    }
+
+    // Estado de un jugador: su valor actual y el que está reflejado en los índices
+    private static final class Entry {
+        private final int id;
+        private final AtomicReference<Player> player;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Player indexed;
+        // Nodo del jugador en el árbol de posiciones; se reutiliza en cada cambio de puntaje
+        private final RankNode rank;
+
+        Entry(int id, Player player) {
+            this.id = id;
+            this.player = new AtomicReference<>(player);
+            this.rank = new RankNode(id);
+        }
+    }
+
+    // Nodo del treap: clave (puntaje, id), prioridad al azar y tamaño del subárbol
+    private static final class RankNode {
+        private final int id;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int score;
+        private int size;
+        private boolean linked;
+        private RankNode left;
+        private RankNode right;
+
+        RankNode(int id) {
+            this.id = id;
+        }
+
+        // Mismo orden que RankKey: mayor puntaje primero y, a igual puntaje, menor id
+        boolean before(RankNode other) {
+            return score != other.score ? score > other.score : id < other.id;
+        }
+    }
+
+    // Treap con el tamaño de cada subárbol: insertar, quitar y contar en O(log n) esperado
+    private static final class RankTree {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private RankNode root;
+
+        // Quita el nodo (si estaba) y lo vuelve a insertar con el puntaje nuevo
+        void move(RankNode node, int score) {
+            lock.writeLock().lock();
+            try {
+                if (node.linked) root = remove(root, node);
+                node.score = score;
+                node.size = 1;
+                node.left = null;
+                node.right = null;
+                root = insert(root, node);
+                node.linked = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Jugadores con puntaje mayor a score: están antes en el orden, es decir, a la izquierda
+        int countAbove(int score) {
+            lock.readLock().lock();
+            try {
+                int count = 0;
+                RankNode node = root;
+                while (node != null) {
+                    if (node.score > score) {
+                        count += size(node.left) + 1;
+                        node = node.right;
+                    } else {
+                        node = node.left;
+                    }
+                }
+                return count;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private static RankNode insert(RankNode tree, RankNode node) {
+            if (tree == null) return node;
+            if (node.before(tree)) {
+                tree.left = insert(tree.left, node);
+                if (tree.left.priority > tree.priority) tree = rotateRight(tree);
+            } else {
+                tree.right = insert(tree.right, node);
+                if (tree.right.priority > tree.priority) tree = rotateLeft(tree);
+            }
+            resize(tree);
+            return tree;
+        }
+
+        private static RankNode remove(RankNode tree, RankNode node) {
+            if (tree == node) return merge(tree.left, tree.right);
+            if (node.before(tree)) {
+                tree.left = remove(tree.left, node);
+            } else {
+                tree.right = remove(tree.right, node);
+            }
+            resize(tree);
+            return tree;
+        }
+
+        // Une dos treaps donde todo first va antes que todo second
+        private static RankNode merge(RankNode first, RankNode second) {
+            if (first == null) return second;
+            if (second == null) return first;
+            if (first.priority > second.priority) {
+                first.right = merge(first.right, second);
+                resize(first);
+                return first;
+            }
+            second.left = merge(first, second.left);
+            resize(second);
+            return second;
+        }
+
+        private static RankNode rotateRight(RankNode tree) {
+            RankNode top = tree.left;
+            tree.left = top.right;
+            top.right = tree;
+            resize(tree);
+            resize(top);
+            return top;
+        }
+
+        private static RankNode rotateLeft(RankNode tree) {
+            RankNode top = tree.right;
+            tree.right = top.left;
+            top.left = tree;
+            resize(tree);
+            resize(top);
+            return top;
+        }
+
+        private static void resize(RankNode node) {
+            node.size = 1 + size(node.left) + size(node.right);
+        }
+
+        private static int size(RankNode node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+
+    // Clave del ranking: mayor puntaje primero y, a igual puntaje, quien se registró antes
+    private static final class RankKey implements Comparable<RankKey> {
+        private final int score;
+        private final int id;
+
+        RankKey(int score, int id) {
+            this.score = score;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(RankKey other) {
+            int byScore = Integer.compare(other.score, score);
+            return byScore != 0 ? byScore : Integer.compare(id, other.id);
+        }
+    }
+}
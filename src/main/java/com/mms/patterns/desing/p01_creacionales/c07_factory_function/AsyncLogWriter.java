@@ -0,0 +1,293 @@
+package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LogLevel;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * ! Escritor de logs asíncrono con buffer circular
+ *
+ * Caso de uso:
+ * Los hilos que registran mensajes no deberían esperar a que se formatee la fecha ni a que se escriba
+ * en consola. Cada mensaje se copia a una celda de un buffer circular reservado al crear el escritor
+ * (nivel, instante en milisegundos y texto); un único hilo consumidor recorre las celdas en orden,
+ * formatea y escribe por lotes con una sola llamada a la salida.
+ *
+ * - Varios productores: cada uno reserva su celda con un contador atómico y la publica al escribir
+ *   su número de secuencia; el consumidor solo lee celdas publicadas y en orden.
+ * - La fecha se formatea una vez por segundo: los mensajes del mismo segundo reutilizan el texto.
+ * - Sin mensajes, el consumidor se duerme (park) hasta que un productor lo despierta (unpark).
+ * - close() marca el contador de secuencias como cerrado: desde ese momento no se reserva ninguna
+ *   celda más, y el consumidor termina recién cuando escribió todas las que ya estaban reservadas.
+ *
+ * Qué pasa cuando el buffer está lleno (WhenFull):
+ * - BLOCK: el productor espera a que el consumidor libere una celda. No se pierde nada, pero una
+ *   salida lenta frena a quien registra.
+ * - DROP: el mensaje se descarta y se cuenta. Quien registra nunca espera. El consumidor escribe
+ *   una línea con la cantidad descartada para que la pérdida quede en el log.
+ * - SAMPLE: con el buffer lleno se conserva uno de cada {@code sampleEvery} mensajes (ese espera
+ *   como en BLOCK) y el resto se descarta y se cuenta como en DROP.
+ */
+public final class AsyncLogWriter implements AutoCloseable {
+
+    public enum WhenFull {
+        BLOCK, DROP, SAMPLE
+    }
+
+    // Mensajes que el consumidor formatea antes de escribir en la salida
+    private static final int MAX_BATCH = 1024;
+    // Bit del contador de secuencias que indica que el escritor está cerrado
+    private static final long CLOSED = 1L << 62;
+    private static final long OPEN = Long.MAX_VALUE;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final WhenFull whenFull;
+    private final int sampleEvery;
+    private final PrintStream out;
+    private final Thread consumer;
+
+    // Siguiente secuencia a reservar por los productores (con el bit CLOSED una vez cerrado)
+    private final AtomicLong next = new AtomicLong();
+    // Siguiente secuencia a leer por el consumidor: las anteriores ya se pueden reutilizar
+    private volatile long consumed;
+    // Primera secuencia que ya no se pudo reservar (OPEN mientras el escritor está abierto)
+    private volatile long closedAt = OPEN;
+    // El consumidor está por dormirse o dormido: quien publica debe despertarlo
+    private volatile boolean sleeping;
+    private volatile boolean consumerDone;
+
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong fullCounter = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    // Caché del texto de la fecha, solo lo usa el hilo consumidor
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedTimestamp;
+
+    /**
+     * @param capacity    Celdas del buffer (se redondea a la siguiente potencia de 2)
+     * @param whenFull    Qué hacer cuando el buffer está lleno
+     * @param sampleEvery Con SAMPLE, se conserva uno de cada sampleEvery mensajes mientras está lleno
+     * @param out         Salida donde se escriben los mensajes
+     */
+    public AsyncLogWriter(int capacity, WhenFull whenFull, int sampleEvery, PrintStream out) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacidad inválida: " + capacity);
+        }
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("sampleEvery debe ser mayor a 0");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.whenFull = whenFull;
+        this.sampleEvery = sampleEvery;
+        this.out = out;
+
+        this.consumer = new Thread(this::consume, "async-log-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    public AsyncLogWriter(int capacity, WhenFull whenFull) {
+        this(capacity, whenFull, 100, System.out);
+    }
+
+    /**
+     * Publica un mensaje sin esperar a que se escriba.
+     *
+     * @return false si el mensaje se descartó porque el buffer estaba lleno
+     */
+    public boolean publish(LogLevel level, String message) {
+        if (closedAt != OPEN) {
+            throw closedError();
+        }
+        long timestamp = System.currentTimeMillis();
+
+        long sequence = claim(whenFull != WhenFull.BLOCK);
+        if (sequence < 0) {
+            if (whenFull == WhenFull.DROP || fullCounter.incrementAndGet() % sampleEvery != 0) {
+                dropped.increment();
+                // El consumidor escribe la línea con la cantidad descartada
+                if (sleeping) LockSupport.unpark(consumer);
+                return false;
+            }
+            // Mensaje de muestra: espera su lugar como en BLOCK
+            sequence = claim(false);
+        }
+
+        awaitFreeSlot(sequence);
+        Slot slot = slots[(int) sequence & mask];
+        slot.level = level;
+        slot.timestamp = timestamp;
+        slot.message = message;
+        // Escritura volátil: publica los campos anteriores al consumidor
+        slot.sequence = sequence;
+        // Lectura volátil después de publicar: si el consumidor se durmió sin ver la celda, se lo despierta
+        if (sleeping) LockSupport.unpark(consumer);
+        return true;
+    }
+
+    // Reserva una celda (con onlyIfFree, solo si hay lugar: -1 si el buffer está lleno)
+    private long claim(boolean onlyIfFree) {
+        while (true) {
+            long sequence = next.get();
+            if ((sequence & CLOSED) != 0) throw closedError();
+            if (onlyIfFree && sequence - consumed >= slots.length) return -1;
+            if (next.compareAndSet(sequence, sequence + 1)) return sequence;
+        }
+    }
+
+    private void awaitFreeSlot(long sequence) {
+        int spins = 0;
+        while (sequence - consumed >= slots.length) {
+            // Sin consumidor nadie va a liberar la celda
+            if (consumerDone) throw closedError();
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(10_000);
+            }
+        }
+    }
+
+    private static IllegalStateException closedError() {
+        return new IllegalStateException("El escritor de logs está cerrado");
+    }
+
+    private void consume() {
+        try {
+            consumeUntilClosed();
+        } finally {
+            consumerDone = true;
+        }
+    }
+
+    private void consumeUntilClosed() {
+        StringBuilder batch = new StringBuilder(MAX_BATCH * 96);
+        long cursor = 0;
+        long reportedDrops = 0;
+        int idle = 0;
+
+        while (true) {
+            int count = 0;
+            while (count < MAX_BATCH) {
+                Slot slot = slots[(int) cursor & mask];
+                if (slot.sequence != cursor) break;
+                append(batch, slot.level, slot.timestamp, slot.message);
+                slot.message = null;
+                cursor++;
+                count++;
+            }
+
+            long drops = dropped.sum();
+            if (drops != reportedDrops) {
+                append(batch, LogLevel.warn, System.currentTimeMillis(),
+                        (drops - reportedDrops) + " mensajes descartados (buffer de log lleno)");
+                reportedDrops = drops;
+            }
+
+            if (batch.length() > 0) {
+                consumed = cursor;
+                out.append(batch);
+                out.flush();
+                batch.setLength(0);
+                written.addAndGet(count);
+                batches.incrementAndGet();
+                idle = 0;
+                continue;
+            }
+
+            // Cerrado y con todas las celdas reservadas antes del cierre ya escritas
+            if (cursor == closedAt) return;
+
+            if (++idle < 100) {
+                Thread.onSpinWait();
+                continue;
+            }
+            // Se anuncia antes de volver a mirar: un productor que publica después ve sleeping y despierta
+            sleeping = true;
+            if (slots[(int) cursor & mask].sequence != cursor && dropped.sum() == reportedDrops
+                    && closedAt == OPEN) {
+                LockSupport.park(this);
+            }
+            sleeping = false;
+            idle = 0;
+        }
+    }
+
+    private void append(StringBuilder batch, LogLevel level, long timestamp, String message) {
+        batch.append(level.getColor()).append('[').append(level.getPrefix()).append(": ")
+                .append(timestamp(timestamp)).append("] ").append(message).append(RESET)
+                .append(System.lineSeparator());
+    }
+
+    // Formatea la fecha solo cuando cambia el segundo
+    private String timestamp(long millis) {
+        long second = Math.floorDiv(millis, 1000);
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTimestamp = FactoryFunctionPattern_02.DATE_FORMAT.format(
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+        }
+        return cachedTimestamp;
+    }
+
+    /**
+     * @return Mensajes descartados por tener el buffer lleno
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return Mensajes escritos en la salida
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * @return Escrituras realizadas en la salida (cada una con un lote de mensajes)
+     */
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * Deja de aceptar mensajes, escribe los pendientes y detiene el hilo consumidor.
+     */
+    @Override
+    public void close() {
+        // Las secuencias ya reservadas se escriben; las siguientes se rechazan en claim()
+        closedAt = next.getAndUpdate(sequence -> sequence | CLOSED) & ~CLOSED;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        out.flush();
+    }
+
+    // Celda del buffer; sequence indica qué mensaje contiene y se escribe al final para publicarlo
+    private static final class Slot {
+        private volatile long sequence = -1;
+        private LogLevel level;
+        private long timestamp;
+        private String message;
+    }
+}
@@ -0,0 +1,207 @@
+package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LogLevel;
+
+/**
+ * ! Decodificador del log binario
+ *
+ * Caso de uso:
+ * Convierte un archivo escrito por {@link BinaryLogWriter} en el mismo texto que imprime
+ * createLogger: "[NIVEL: fecha] mensaje", una línea por evento y sin colores. Se usa fuera del proceso
+ * que registró los eventos, por ejemplo al revisar los logs:
+ *
+ * java ...BinaryLogDecoder app.blog
+ *
+ * Si el archivo termina con un registro incompleto (el proceso cayó mientras escribía), se decodifica
+ * hasta el último evento completo. Un registro inválido (tipo, plantilla o argumento desconocido) es
+ * un error de formato que indica la posición en bytes del registro.
+ */
+public final class BinaryLogDecoder {
+
+    private BinaryLogDecoder() {
+    }
+
+    /**
+     * Decodifica el log binario y escribe cada evento como una línea de texto.
+     *
+     * @return Eventos decodificados
+     */
+    public static long decode(InputStream binary, Appendable text) throws IOException {
+        CountingInputStream counter = new CountingInputStream(binary);
+        DataInputStream in = new DataInputStream(counter);
+        byte[] magic = new byte[BinaryLogWriter.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, BinaryLogWriter.MAGIC) || in.readByte() != BinaryLogWriter.VERSION) {
+            throw new IllegalArgumentException("No es un log binario o su versión no es compatible");
+        }
+
+        List<String> templates = new ArrayList<>();
+        StringBuilder line = new StringBuilder(256);
+        StringBuilder discarded = new StringBuilder();
+        long cachedSecond = Long.MIN_VALUE;
+        String cachedTimestamp = null;
+        long events = 0;
+
+        while (true) {
+            long offset = counter.count;
+            int type = in.read();
+            if (type < 0) break;
+            try {
+                if ((byte) type == BinaryLogWriter.TEMPLATE) {
+                    int id = readVarint(in);
+                    if (id != templates.size()) {
+                        throw formatError("Plantilla fuera de orden: " + id, offset);
+                    }
+                    templates.add(readString(in));
+                    continue;
+                }
+                LogLevel level = BinaryLogWriter.levelOf(type);
+                if (level == null) {
+                    throw formatError("Tipo de registro desconocido: " + type, offset);
+                }
+
+                long millis = in.readLong();
+                int id = readVarint(in);
+                if (id < 0 || id >= templates.size()) {
+                    throw formatError("Plantilla no definida: " + id, offset);
+                }
+                String template = templates.get(id);
+                int argCount = readVarint(in);
+
+                long second = Math.floorDiv(millis, 1000);
+                if (second != cachedSecond) {
+                    cachedSecond = second;
+                    cachedTimestamp = FactoryFunctionPattern_02.DATE_FORMAT.format(
+                            LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+                }
+
+                line.setLength(0);
+                line.append('[').append(level.getPrefix()).append(": ").append(cachedTimestamp).append("] ");
+                // Mismo criterio que LoggerFunction.format: cada {} toma el siguiente argumento
+                int from = 0;
+                for (int i = 0; i < argCount; i++) {
+                    int at = template.indexOf("{}", from);
+                    if (at < 0) {
+                        // Argumento sobrante: se lee y se descarta
+                        readArg(in, discarded, offset);
+                        discarded.setLength(0);
+                        continue;
+                    }
+                    line.append(template, from, at);
+                    readArg(in, line, offset);
+                    from = at + 2;
+                }
+                line.append(template, from, template.length()).append(System.lineSeparator());
+                text.append(line);
+                events++;
+            } catch (EOFException ex) {
+                // Registro incompleto al final del archivo
+                break;
+            }
+        }
+        return events;
+    }
+
+    private static IllegalArgumentException formatError(String message, long offset) {
+        return new IllegalArgumentException(message + " (registro en el byte " + offset + ")");
+    }
+
+    // Lee un argumento y lo agrega al texto tal como lo haría String.valueOf()
+    private static void readArg(DataInputStream in, StringBuilder line, long offset) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case BinaryLogWriter.ARG_NULL -> line.append("null");
+            case BinaryLogWriter.ARG_LONG -> {
+                long zigzag = readVarlong(in);
+                line.append((zigzag >>> 1) ^ -(zigzag & 1));
+            }
+            case BinaryLogWriter.ARG_DOUBLE -> line.append(Double.longBitsToDouble(in.readLong()));
+            case BinaryLogWriter.ARG_FLOAT -> line.append(Float.intBitsToFloat(in.readInt()));
+            case BinaryLogWriter.ARG_BOOLEAN -> line.append(in.readByte() != 0);
+            case BinaryLogWriter.ARG_STRING -> line.append(readString(in));
+            default -> throw formatError("Tipo de argumento desconocido: " + type, offset);
+        }
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        return (int) readVarlong(in);
+    }
+
+    private static long readVarlong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Varint demasiado largo");
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarint(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Cuenta los bytes leídos para indicar dónde empieza un registro inválido
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) throws IOException {
+            int n = super.read(bytes, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Uso: BinaryLogDecoder <archivo>");
+            return;
+        }
+        PrintStream out = System.out;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Path.of(args[0])), 64 * 1024)) {
+            decode(in, out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo leer " + args[0], ex);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,303 @@
+package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LogLevel;
+
+/**
+ * ! Escritor de logs en formato binario compacto
+ *
+ * Caso de uso:
+ * Armar el texto de cada mensaje (fecha formateada, plantilla con sus argumentos, colores) es lo que
+ * más cuesta al registrar. Este escritor no arma texto: guarda el nivel, el instante en milisegundos,
+ * el número de la plantilla y los argumentos tal cual, y el texto se arma después y fuera del proceso
+ * con {@link BinaryLogDecoder}.
+ *
+ * Formato: la cabecera "BLOG" + versión, seguida de registros.
+ * - Plantilla (la primera vez que se usa): [0xFF][id varint][longitud varint][texto UTF-8]
+ * - Evento: [código de nivel][instante: long de 8 bytes][id de plantilla varint][cantidad de argumentos varint][argumentos]
+ * - Cada argumento lleva un byte de tipo: enteros en varint con zigzag (los negativos chicos también
+ *   ocupan pocos bytes), double y float en bytes fijos, boolean en un byte y texto con su longitud.
+ *   Cualquier otro objeto se guarda como texto con String.valueOf().
+ * - Los niveles tienen códigos fijos (debug 1, info 2, warn 3, error 4) y no el ordinal de LogLevel:
+ *   agregar o reordenar niveles no cambia el significado de los archivos ya escritos.
+ *
+ * Los registros se acumulan en un buffer propio y se escriben en la salida al llenarse, con flush()
+ * y al cerrar: lo que quede en el buffer se pierde si el proceso cae antes.
+ */
+public final class BinaryLogWriter implements AutoCloseable {
+
+    static final byte[] MAGIC = {'B', 'L', 'O', 'G'};
+    static final byte VERSION = 2;
+
+    static final byte TEMPLATE = (byte) 0xFF;
+
+    static final byte LEVEL_DEBUG = 1;
+    static final byte LEVEL_INFO = 2;
+    static final byte LEVEL_WARN = 3;
+    static final byte LEVEL_ERROR = 4;
+
+    static final byte ARG_NULL = 0;
+    static final byte ARG_LONG = 1;
+    static final byte ARG_DOUBLE = 2;
+    static final byte ARG_FLOAT = 3;
+    static final byte ARG_BOOLEAN = 4;
+    static final byte ARG_STRING = 5;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Nivel + instante + id + cantidad de argumentos, con varints de hasta 5 bytes
+    private static final int EVENT_HEADER = 1 + 8 + 5 + 5;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    // La plantilla es casi siempre el mismo literal: su hash está cacheado y equals compara la referencia
+    private final Map<String, Integer> templates = new HashMap<>();
+    private long events;
+    private long bytesWritten;
+    private boolean closed;
+
+    /**
+     * @param out Salida del log binario (se recomienda un archivo; el escritor ya acumula en su buffer)
+     */
+    public BinaryLogWriter(OutputStream out) {
+        this.out = out;
+        System.arraycopy(MAGIC, 0, buffer, 0, MAGIC.length);
+        buffer[MAGIC.length] = VERSION;
+        position = MAGIC.length + 1;
+    }
+
+    public synchronized void log(LogLevel level, String template) {
+        begin(level, template, 0);
+    }
+
+    // Variantes con long: los enteros primitivos no pasan por Long
+    public synchronized void log(LogLevel level, String template, long arg) {
+        begin(level, template, 1);
+        putLongArg(arg);
+    }
+
+    public synchronized void log(LogLevel level, String template, long arg1, long arg2) {
+        begin(level, template, 2);
+        putLongArg(arg1);
+        putLongArg(arg2);
+    }
+
+    public synchronized void log(LogLevel level, String template, Object arg) {
+        begin(level, template, 1);
+        putArg(arg);
+    }
+
+    public synchronized void log(LogLevel level, String template, Object arg1, Object arg2) {
+        begin(level, template, 2);
+        putArg(arg1);
+        putArg(arg2);
+    }
+
+    public synchronized void log(LogLevel level, String template, Object... args) {
+        begin(level, template, args.length);
+        for (Object arg : args) {
+            putArg(arg);
+        }
+    }
+
+    // Escribe la cabecera del evento (y la definición de la plantilla si es nueva)
+    private void begin(LogLevel level, String template, int argCount) {
+        if (closed) {
+            throw new IllegalStateException("El escritor de logs está cerrado");
+        }
+        Integer id = templates.get(template);
+        if (id == null) {
+            id = templates.size();
+            templates.put(template, id);
+            ensure(1 + 5);
+            buffer[position++] = TEMPLATE;
+            putVarint(id);
+            putString(template);
+        }
+
+        ensure(EVENT_HEADER);
+        buffer[position++] = levelCode(level);
+        putLong(System.currentTimeMillis());
+        putVarint(id);
+        putVarint(argCount);
+        events++;
+    }
+
+    // Un nivel nuevo no compila hasta que se le asigne su código
+    static byte levelCode(LogLevel level) {
+        return switch (level) {
+            case debug -> LEVEL_DEBUG;
+            case info -> LEVEL_INFO;
+            case warn -> LEVEL_WARN;
+            case error -> LEVEL_ERROR;
+        };
+    }
+
+    // Nivel de un código del formato, o null si no es un código de nivel
+    static LogLevel levelOf(int code) {
+        return switch (code) {
+            case LEVEL_DEBUG -> LogLevel.debug;
+            case LEVEL_INFO -> LogLevel.info;
+            case LEVEL_WARN -> LogLevel.warn;
+            case LEVEL_ERROR -> LogLevel.error;
+            default -> null;
+        };
+    }
+
+    private void putArg(Object arg) {
+        if (arg == null) {
+            ensure(1);
+            buffer[position++] = ARG_NULL;
+        } else if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            putLongArg(((Number) arg).longValue());
+        } else if (arg instanceof Double value) {
+            ensure(1 + 8);
+            buffer[position++] = ARG_DOUBLE;
+            putLong(Double.doubleToRawLongBits(value));
+        } else if (arg instanceof Float value) {
+            ensure(1 + 4);
+            buffer[position++] = ARG_FLOAT;
+            putInt(Float.floatToRawIntBits(value));
+        } else if (arg instanceof Boolean value) {
+            ensure(2);
+            buffer[position++] = ARG_BOOLEAN;
+            buffer[position++] = (byte) (value ? 1 : 0);
+        } else {
+            ensure(1);
+            buffer[position++] = ARG_STRING;
+            putString(arg instanceof String text ? text : String.valueOf(arg));
+        }
+    }
+
+    private void putLongArg(long value) {
+        ensure(1 + 10);
+        buffer[position++] = ARG_LONG;
+        // Zigzag: 0, -1, 1, -2, ... -> 0, 1, 2, 3, ...
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[position++] = (byte) zigzag;
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void putLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void putInt(int value) {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    // Texto ASCII: se copia carácter por carácter sin crear el byte[] de getBytes()
+    private void putString(String text) {
+        int length = text.length();
+        boolean ascii = length <= BUFFER_SIZE - 5;
+        for (int i = 0; ascii && i < length; i++) {
+            ascii = text.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            ensure(5 + length);
+            putVarint(length);
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) text.charAt(i);
+            }
+            return;
+        }
+
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ensure(5);
+        putVarint(bytes.length);
+        if (bytes.length <= BUFFER_SIZE) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        } else {
+            drain();
+            write(bytes, bytes.length);
+        }
+    }
+
+    // Garantiza lugar para n bytes en el buffer (n nunca supera su tamaño)
+    private void ensure(int n) {
+        if (position + n > buffer.length) drain();
+    }
+
+    private void drain() {
+        write(buffer, position);
+        position = 0;
+    }
+
+    private void write(byte[] bytes, int length) {
+        try {
+            out.write(bytes, 0, length);
+            bytesWritten += length;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo escribir el log binario", ex);
+        }
+    }
+
+    /**
+     * Escribe en la salida los registros acumulados en el buffer.
+     */
+    public synchronized void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo escribir el log binario", ex);
+        }
+    }
+
+    /**
+     * @return Eventos registrados
+     */
+    public synchronized long getEvents() {
+        return events;
+    }
+
+    /**
+     * @return Plantillas distintas registradas
+     */
+    public synchronized int getTemplateCount() {
+        return templates.size();
+    }
+
+    /**
+     * @return Bytes escritos en la salida (sin contar los que siguen en el buffer)
+     */
+    public synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        flush();
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo cerrar el log binario", ex);
+        }
+    }
+}
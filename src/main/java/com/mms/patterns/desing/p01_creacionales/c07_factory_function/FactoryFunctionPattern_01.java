@@ -10,7 +10,9 @@
 
 package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
 
-import java.util.HashMap;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.mms.patterns.desing.utils.ConsoleColors.*;
@@ -27,6 +29,32 @@ public class FactoryFunctionPattern_01 {
     @FunctionalInterface
     public interface GreeterFunction {
         void greet(String name);
+
+        // Saluda a varios usuarios; por defecto, uno por uno
+        default void greetAll(List<String> names) {
+            for (String name : names) {
+                greet(name);
+            }
+        }
+
+        // Saluda a varios usuarios escribiendo en la salida indicada. Una lambda solo sabe escribir
+        // donde escribe greet(), así que por defecto únicamente acepta esa salida (System.out)
+        default void greetAll(List<String> names, PrintStream out) {
+            if (out != System.out) {
+                throw new UnsupportedOperationException("Este saludo solo escribe en System.out");
+            }
+            greetAll(names);
+        }
+    }
+
+
+    // Plantillas de saludo, calculadas una sola vez por idioma: texto antes y después del nombre
+    private static final Map<Language, String[]> TEMPLATES = new EnumMap<>(Language.class);
+
+    static {
+        TEMPLATES.put(Language.es, new String[]{RED + "Hola, ", "!" + RESET});
+        TEMPLATES.put(Language.en, new String[]{RED + "Hello, ", "!" + RESET});
+        TEMPLATES.put(Language.fr, new String[]{RED + "Bonjour, ", "!" + RESET});
     }
 
 
@@ -37,14 +65,78 @@ public class FactoryFunctionPattern_01 {
      * @return Una función que saluda en el idioma especificado
      */
     public static GreeterFunction createGreeter(Language lang) {
-        return (String name) -> {
-            Map<Language, String> messages = new HashMap<>();
-            messages.put(Language.es, "Hola, %s!");
-            messages.put(Language.en, "Hello, %s!");
-            messages.put(Language.fr, "Bonjour, %s!");
-
-            System.out.println(RED + String.format(messages.get(lang), name) + RESET);
-        };
+        return createGreeter(lang, System.out);
+    }
+
+    /**
+     * Factory Function: crea una función de saludo que escribe en la salida indicada.
+     *
+     * @param lang Idioma para el saludo
+     * @param out  Salida donde se escriben los saludos
+     * @return Una función que saluda en el idioma especificado
+     */
+    public static GreeterFunction createGreeter(Language lang, PrintStream out) {
+        String[] template = TEMPLATES.get(lang);
+        if (template == null) {
+            throw new IllegalArgumentException("Idioma no soportado: " + lang);
+        }
+        return new TemplateGreeter(template[0], template[1], out);
+    }
+
+
+    // Saludo con la plantilla ya resuelta: concatena en lugar de usar String.format en cada llamada
+    private static final class TemplateGreeter implements GreeterFunction {
+
+        // Tamaño del bloque que se acumula antes de escribir en la salida
+        private static final int BATCH_CHARS = 64 * 1024;
+
+        private final String prefix;
+        private final String suffix;
+        private final PrintStream out;
+
+        TemplateGreeter(String prefix, String suffix, PrintStream out) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.out = out;
+        }
+
+        @Override
+        public void greet(String name) {
+            out.println(prefix + name + suffix);
+        }
+
+        @Override
+        public void greetAll(List<String> names) {
+            greetAll(names, out);
+        }
+
+        // Arma los saludos en un solo buffer y escribe por bloques, en lugar de un println por nombre
+        @Override
+        public void greetAll(List<String> names, PrintStream out) {
+            String lineSeparator = System.lineSeparator();
+            StringBuilder batch = new StringBuilder(BATCH_CHARS + 256);
+            for (String name : names) {
+                batch.append(prefix).append(name).append(suffix).append(lineSeparator);
+                if (batch.length() >= BATCH_CHARS) {
+                    out.append(batch);
+                    batch.setLength(0);
+                }
+            }
+            out.append(batch);
+            out.flush();
+        }
+    }
+
+
+    /**
+     * Saluda a una lista de usuarios escribiendo en la salida indicada.
+     *
+     * @param lang  Idioma para el saludo
+     * @param names Usuarios a saludar
+     * @param out   Salida donde se escriben los saludos
+     */
+    public static void greetAll(Language lang, List<String> names, PrintStream out) {
+        createGreeter(lang).greetAll(names, out);
     }
 
     /**
@@ -62,5 +154,8 @@ public class FactoryFunctionPattern_01 {
         spanishGreeter.greet("Fernando");
         englishGreeter.greet("Alice");
         frenchGreeter.greet("Pierre");
+
+        // Saludar a varios usuarios con una sola escritura
+        spanishGreeter.greetAll(List.of("Ana", "Luis", "Marta"));
     }
 }
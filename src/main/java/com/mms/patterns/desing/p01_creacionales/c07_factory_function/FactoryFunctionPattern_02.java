@@ -16,13 +16,18 @@
 
 package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
 
+import java.io.PrintStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
 
 import static com.mms.patterns.desing.utils.ConsoleColors.*;
 
 public class FactoryFunctionPattern_02 {
 
+    // DateTimeFormatter es inmutable y seguro entre hilos: se crea una sola vez
+    static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
 
     /**
      * Formatea la fecha y hora actual en un string legible.
@@ -34,57 +39,230 @@ public class FactoryFunctionPattern_02 {
             throw new IllegalArgumentException("La fecha no puede ser nula");
         }
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        return date.format(formatter);
+        return date.format(DATE_FORMAT);
     }
 
 
-    // Enum para los niveles de log soportados
+    // Enum para los niveles de log soportados (de menor a mayor severidad), con su prefijo y color
     public enum LogLevel {
-        info, warn, error
+        debug("DEBUG", CYAN),
+        info("INFO", WHITE),
+        warn("WARNING", YELLOW),
+        error("ERROR", RED);
+
+        private final String prefix;
+        private final String color;
+
+        LogLevel(String prefix, String color) {
+            this.prefix = prefix;
+            this.color = color;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public String getColor() {
+            return color;
+        }
+
+        // Busca el nivel por nombre o prefijo sin distinguir mayúsculas ("WARN", "warning"); null si no existe
+        public static LogLevel fromName(String name) {
+            if (name == null) return null;
+            String trimmed = name.trim();
+            for (LogLevel level : values()) {
+                if (level.name().equalsIgnoreCase(trimmed) || level.prefix.equalsIgnoreCase(trimmed)) {
+                    return level;
+                }
+            }
+            return null;
+        }
     }
 
 
-    // Interfaz funcional para la función de log
+    // Nivel mínimo que se registra; se puede cambiar en ejecución o con -Dlog.level=warn
+    private static volatile LogLevel minLevel = initialMinLevel();
+
+    // Un valor inválido en -Dlog.level no impide cargar la clase: se avisa y se usa info
+    private static LogLevel initialMinLevel() {
+        String property = System.getProperty("log.level");
+        if (property == null) return LogLevel.info;
+        LogLevel level = LogLevel.fromName(property);
+        if (level == null) {
+            System.err.println(YELLOW + "[WARNING] log.level=\"" + property + "\" no es un nivel válido "
+                    + "(debug, info, warn, error); se usa info" + RESET);
+            return LogLevel.info;
+        }
+        return level;
+    }
+
+    public static LogLevel getMinLevel() {
+        return minLevel;
+    }
+
+    public static void setMinLevel(LogLevel level) {
+        if (level == null) {
+            throw new IllegalArgumentException("El nivel mínimo no puede ser nulo");
+        }
+        minLevel = level;
+    }
+
+
+    /**
+     * Interfaz funcional para la función de log.
+     *
+     * Las variantes con Supplier o con plantilla y argumentos solo construyen el mensaje si el
+     * nivel está habilitado. Las plantillas usan {} para cada argumento; las versiones de uno y
+     * dos argumentos evitan crear el arreglo de varargs cuando el nivel está deshabilitado.
+     * Si quien llama pasa primitivos, el boxing ocurre antes de la llamada: conviene pasar
+     * objetos que ya existen (o int entre -128 y 127, que Java reutiliza).
+     */
     @FunctionalInterface
     public interface LoggerFunction {
         void logger(String message);
+
+        default boolean isEnabled() {
+            return true;
+        }
+
+        default void logger(Supplier<String> message) {
+            if (isEnabled()) logger(message.get());
+        }
+
+        default void logger(String template, Object arg) {
+            if (isEnabled()) logger(format(template, arg));
+        }
+
+        default void logger(String template, Object arg1, Object arg2) {
+            if (isEnabled()) logger(format(template, arg1, arg2));
+        }
+
+        default void logger(String template, Object... args) {
+            if (isEnabled()) logger(format(template, args));
+        }
+
+        // Reemplaza cada {} de la plantilla por el siguiente argumento
+        static String format(String template, Object... args) {
+            StringBuilder sb = new StringBuilder(template.length() + 16 * args.length);
+            int from = 0;
+            for (Object arg : args) {
+                int at = template.indexOf("{}", from);
+                if (at < 0) break;
+                sb.append(template, from, at).append(arg);
+                from = at + 2;
+            }
+            return sb.append(template, from, template.length()).toString();
+        }
+    }
+
+
+    // Agrega el filtro por nivel mínimo a la función que escribe el mensaje
+    private static LoggerFunction withLevelFilter(LogLevel level, LoggerFunction write) {
+        return new LoggerFunction() {
+            @Override
+            public void logger(String message) {
+                if (isEnabled()) write.logger(message);
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return level.compareTo(minLevel) >= 0;
+            }
+        };
     }
 
 
     /**
      * Factory Function: crea una función de log personalizada según el nivel.
      *
-     * @param level Nivel de log (info, warn, error)
-     * @return Una función que imprime mensajes con formato y color según el nivel
+     * @param level Nivel de log (debug, info, warn, error)
+     * @return Una función que imprime mensajes con formato y color según el nivel,
+     *         si el nivel no es menor al nivel mínimo configurado
      */
     public static LoggerFunction createLogger(LogLevel level) {
-        return (String message) -> {
-            String timestamp = formatDate(LocalDateTime.now());
+        return createLogger(level, System.out);
+    }
 
-            String prefix;
-            String color = switch (level) {
-                case info -> {
-                    prefix = "INFO";
-                    yield WHITE;
-                }
-                case warn -> {
-                    prefix = "WARNING";
-                    yield YELLOW;
-                }
-                case error -> {
-                    prefix = "ERROR";
-                    yield RED;
-                }
-                default -> {
-                    prefix = "LOG";
-                    yield WHITE;
-                }
-            };
 
-            System.out.println(
-                color + "[" + prefix + ": " + timestamp + "] " + message + RESET
+    /**
+     * Factory Function: crea una función de log que escribe en la salida indicada.
+     *
+     * @param level Nivel de log (debug, info, warn, error)
+     * @param out   Salida donde se escriben los mensajes
+     * @return Una función que imprime mensajes con formato y color según el nivel,
+     *         si el nivel no es menor al nivel mínimo configurado
+     */
+    public static LoggerFunction createLogger(LogLevel level, PrintStream out) {
+        return withLevelFilter(level, (String message) -> {
+            String timestamp = formatDate(LocalDateTime.now());
+
+            out.println(
+                level.getColor() + "[" + level.getPrefix() + ": " + timestamp + "] " + message + RESET
             );
+        });
+    }
+
+
+    /**
+     * Factory Function: crea una función de log asíncrona. El mensaje se deja en el buffer circular
+     * del AsyncLogWriter y su hilo consumidor le da formato y lo escribe por lotes.
+     *
+     * @param level  Nivel de log (debug, info, warn, error)
+     * @param writer Escritor asíncrono compartido por los loggers
+     * @return Una función que publica el mensaje sin esperar a que se escriba
+     */
+    public static LoggerFunction createLogger(LogLevel level, AsyncLogWriter writer) {
+        return withLevelFilter(level, (String message) -> writer.publish(level, message));
+    }
+
+    /**
+     * Factory Function: crea una función de log que escribe en archivos rotativos mapeados en memoria.
+     * En el archivo no se usan colores, solo "[NIVEL: fecha] mensaje".
+     *
+     * @param level Nivel de log (debug, info, warn, error)
+     * @param sink  Destino en disco compartido por los loggers
+     * @return Una función que agrega el mensaje al segmento actual del destino
+     */
+    public static LoggerFunction createLogger(LogLevel level, MappedFileLogSink sink) {
+        return withLevelFilter(level, (String message) -> sink.write(level, message));
+    }
+
+    /**
+     * Factory Function: crea una función de log que escribe en formato binario. Las plantillas y sus
+     * argumentos se guardan sin armar el texto; BinaryLogDecoder lo reconstruye después.
+     * Un mensaje sin argumentos se guarda como argumento de la plantilla "{}", para no registrar
+     * una plantilla nueva por cada texto distinto.
+     *
+     * @param level  Nivel de log (debug, info, warn, error)
+     * @param writer Escritor binario compartido por los loggers
+     * @return Una función que registra el evento sin formatear el mensaje
+     */
+    public static LoggerFunction createLogger(LogLevel level, BinaryLogWriter writer) {
+        return new LoggerFunction() {
+            @Override
+            public void logger(String message) {
+                if (isEnabled()) writer.log(level, "{}", message);
+            }
+
+            @Override
+            public void logger(String template, Object arg) {
+                if (isEnabled()) writer.log(level, template, arg);
+            }
+
+            @Override
+            public void logger(String template, Object arg1, Object arg2) {
+                if (isEnabled()) writer.log(level, template, arg1, arg2);
+            }
+
+            @Override
+            public void logger(String template, Object... args) {
+                if (isEnabled()) writer.log(level, template, args);
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return level.compareTo(minLevel) >= 0;
+            }
         };
     }
 
@@ -103,5 +281,13 @@ public class FactoryFunctionPattern_02 {
         infoLogger.logger("Aplicación iniciada correctamente.");
         warnLogger.logger("El uso de memoria está alto.");
         errorLogger.logger("Error de conexión a la base de datos.");
+
+        // Mensajes con plantilla: solo se arman si el nivel está habilitado
+        LoggerFunction debugLogger = createLogger(LogLevel.debug);
+        debugLogger.logger("Detalle de la conexión: {}", "no se muestra con el nivel info");
+        setMinLevel(LogLevel.debug);
+        debugLogger.logger("Conexiones activas: {} de {}", 3, 10);
+        debugLogger.logger(() -> "Mensaje construido solo porque debug está habilitado");
+        setMinLevel(LogLevel.info);
     }
 }
@@ -0,0 +1,73 @@
+/**
+ * ! Factory Function con plantillas precalculadas
+ * La función que devuelve la fábrica puede capturar todo lo que no cambia entre llamadas
+ * (la plantilla del idioma), así cada llamada solo hace el trabajo que depende del argumento.
+ *
+ * * Es útil cuando la función creada se invoca millones de veces,
+ * * como en trabajos que envían notificaciones a todos los usuarios.
+ *
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_01.GreeterFunction;
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_01.Language;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa de saludar a muchos usuarios con la plantilla precalculada.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Se comprueba que las tres estrategias escriben exactamente los mismos saludos:
+ * 1. La versión anterior: arma un HashMap con las plantillas y usa String.format en cada saludo.
+ * 2. greet() con la plantilla precalculada (un println por nombre).
+ * 3. greetAll() con la plantilla precalculada (un solo buffer para todo el lote).
+ *
+ * El costo de cada una con 200.000 usuarios se mide en GreeterBenchmark (src/jmh, perfil bench).
+ */
+public class FactoryFunctionPattern_03 {
+
+    public static void main(String[] args) {
+        List<String> names = List.of("Ana", "Luis", "Marta", "Pierre");
+
+        String legacy = capture(out -> names.forEach(createLegacyGreeter(Language.es, out)::greet));
+        String perName = capture(out -> names.forEach(FactoryFunctionPattern_01.createGreeter(Language.es, out)::greet));
+        String batch = capture(out -> FactoryFunctionPattern_01.createGreeter(Language.es).greetAll(names, out));
+
+        if (!legacy.equals(perName) || !legacy.equals(batch)) {
+            throw new IllegalStateException("Las estrategias escriben saludos distintos");
+        }
+        System.out.println(GREEN + "Las tres estrategias escriben los mismos saludos:" + RESET);
+        System.out.print(batch);
+    }
+
+    private static String capture(Consumer<PrintStream> work) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8)) {
+            work.accept(out);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    // La implementación anterior de createGreeter, para comparar; escribe en la salida indicada
+    static GreeterFunction createLegacyGreeter(Language lang, PrintStream out) {
+        return (String name) -> {
+            Map<Language, String> messages = new HashMap<>();
+            messages.put(Language.es, "Hola, %s!");
+            messages.put(Language.en, "Hello, %s!");
+            messages.put(Language.fr, "Bonjour, %s!");
+
+            out.println(RED + String.format(messages.get(lang), name) + RESET);
+        };
+    }
+}
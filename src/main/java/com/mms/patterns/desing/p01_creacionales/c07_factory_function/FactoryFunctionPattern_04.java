@@ -0,0 +1,106 @@
+/**
+ * ! Factory Function con logger asíncrono
+ * La fábrica puede devolver funciones con el mismo contrato pero distinta estrategia: aquí
+ * createLogger(nivel, escritor) devuelve un LoggerFunction que solo deja el mensaje en un buffer
+ * circular, y un hilo aparte se encarga de formatear y escribir.
+ *
+ * * Es útil cuando muchos hilos registran mensajes y no deben esperar a la consola o al disco.
+ *
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.function.Function;
+
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.AsyncLogWriter.WhenFull;
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LogLevel;
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LoggerFunction;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del logger asíncrono.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * 1. Tres loggers comparten un AsyncLogWriter que escribe en consola.
+ * 2. 4 hilos registran 100.000 mensajes cada uno en una salida configurada como System.out
+ *    (con buffer y vaciado en cada println) que descarta los datos. Se compara el logger
+ *    síncrono con el asíncrono en sus tres políticas de buffer lleno.
+ */
+public class FactoryFunctionPattern_04 {
+
+    private static final int THREADS = 4;
+    private static final int MESSAGES = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        // 1. Ejemplo de uso
+        try (AsyncLogWriter writer = new AsyncLogWriter(1024, WhenFull.BLOCK)) {
+            FactoryFunctionPattern_02.createLogger(LogLevel.info, writer).logger("Aplicación iniciada correctamente.");
+            FactoryFunctionPattern_02.createLogger(LogLevel.warn, writer).logger("El uso de memoria está alto.");
+            FactoryFunctionPattern_02.createLogger(LogLevel.error, writer).logger("Error de conexión a la base de datos.");
+        }
+
+        // 2. Comparación con varios hilos
+        // Igual que System.out: con buffer y autoflush, pero sin destino
+        PrintStream discard = new PrintStream(new BufferedOutputStream(OutputStream.nullOutputStream()), true);
+
+        System.out.println(GREEN + "\n" + THREADS + " hilos x " + MESSAGES + " mensajes:" + RESET);
+        System.out.println(String.format("%-22s %14s %14s %12s %12s %10s",
+                "logger", "ns/msj x hilo", "total (ms)", "escritos", "descartados", "lotes"));
+        for (int round = 0; round < 2; round++) {
+            // La primera ronda es de calentamiento
+            boolean print = round == 1;
+
+            long[] sync = run(level -> FactoryFunctionPattern_02.createLogger(level, discard));
+            if (print) {
+                System.out.println(String.format("%-22s %14.1f %14d %12d %12d %10s",
+                        "síncrono (println)", (double) sync[0] / MESSAGES, sync[1], (long) THREADS * MESSAGES, 0, "-"));
+            }
+
+            runAsync("asíncrono BLOCK", new AsyncLogWriter(8192, WhenFull.BLOCK, 1, discard), print);
+            runAsync("asíncrono DROP", new AsyncLogWriter(1024, WhenFull.DROP, 1, discard), print);
+            runAsync("asíncrono SAMPLE 1/10", new AsyncLogWriter(1024, WhenFull.SAMPLE, 10, discard), print);
+        }
+        discard.close();
+    }
+
+    private static void runAsync(String name, AsyncLogWriter writer, boolean print) throws InterruptedException {
+        long start = System.nanoTime();
+        long[] result = run(level -> FactoryFunctionPattern_02.createLogger(level, writer));
+        writer.close();
+        long totalMillis = (System.nanoTime() - start) / 1_000_000;
+        if (print) {
+            System.out.println(String.format("%-22s %14.1f %14d %12d %12d %10d", name, (double) result[0] / MESSAGES,
+                    totalMillis, writer.getWritten(), writer.getDropped(), writer.getBatches()));
+        }
+    }
+
+    // Devuelve {tiempo promedio por hilo en ns, tiempo total en ms}
+    private static long[] run(Function<LogLevel, LoggerFunction> factory) throws InterruptedException {
+        LoggerFunction[] loggers = {factory.apply(LogLevel.info), factory.apply(LogLevel.warn), factory.apply(LogLevel.error)};
+        long[] elapsed = new long[THREADS];
+        Thread[] threads = new Thread[THREADS];
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                long begin = System.nanoTime();
+                for (int i = 0; i < MESSAGES; i++) {
+                    loggers[i % 3].logger("hilo " + id + " procesó la tarea " + i);
+                }
+                elapsed[id] = System.nanoTime() - begin;
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        long total = (System.nanoTime() - start) / 1_000_000;
+
+        long sum = 0;
+        for (long nanos : elapsed) sum += nanos;
+        return new long[]{sum / THREADS, total};
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * ! Factory Function con filtro de nivel
+ * La función creada por la fábrica conoce su nivel y consulta el nivel mínimo en cada llamada.
+ * Si el mensaje se entrega como Supplier o como plantilla con argumentos, un log deshabilitado
+ * no arma el texto: cuesta una comparación y no reserva memoria.
+ *
+ * * Es útil para dejar logs de depuración en el código sin pagar su costo en producción.
+ *
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LogLevel;
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LoggerFunction;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa de un log deshabilitado.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Con el nivel mínimo en warn, un logger de nivel debug recibe un Supplier y una plantilla:
+ * no se escribe nada y el Supplier no se llama. Con el nivel en debug, los mismos mensajes sí se arman.
+ *
+ * El tiempo y la memoria por llamada de cada variante (mensaje armado antes, Supplier, plantilla
+ * con dos argumentos, if (isEnabled())) se miden en DisabledLogBenchmark (src/jmh, perfil bench).
+ */
+public class FactoryFunctionPattern_05 {
+
+    public static void main(String[] args) {
+        LogLevel previous = FactoryFunctionPattern_02.getMinLevel();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true);
+        LoggerFunction debug = FactoryFunctionPattern_02.createLogger(LogLevel.debug, out);
+        AtomicInteger built = new AtomicInteger();
+
+        try {
+            FactoryFunctionPattern_02.setMinLevel(LogLevel.warn);
+            debug.logger(() -> "Pedido " + built.incrementAndGet());
+            debug.logger("Pedido {} de {}", 7919L, "usuario-1");
+            if (built.get() != 0 || bytes.size() != 0) {
+                throw new IllegalStateException("Un log deshabilitado armó o escribió el mensaje");
+            }
+            System.out.println(GREEN + "Nivel mínimo warn: " + RESET + "0 mensajes armados, 0 bytes escritos");
+
+            FactoryFunctionPattern_02.setMinLevel(LogLevel.debug);
+            debug.logger(() -> "Pedido " + built.incrementAndGet());
+            debug.logger("Pedido {} de {}", 7919L, "usuario-1");
+            System.out.println(GREEN + "Nivel mínimo debug: " + RESET + built.get() + " mensaje armado por el Supplier");
+            System.out.print(bytes);
+        } finally {
+            FactoryFunctionPattern_02.setMinLevel(previous);
+        }
+    }
+}
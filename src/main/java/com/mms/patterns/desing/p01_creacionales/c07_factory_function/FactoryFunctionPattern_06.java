@@ -0,0 +1,149 @@
+/**
+ * ! Factory Function con destino en disco
+ * La misma fábrica createLogger puede entregar funciones que escriben en consola, en un buffer
+ * asíncrono o en disco. Aquí el destino son archivos mapeados en memoria que rotan por tamaño
+ * o por tiempo, con el siguiente archivo preparado en segundo plano.
+ *
+ * * Es útil cuando los logs de producción deben quedar en disco sin frenar a la aplicación.
+ *
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LogLevel;
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LoggerFunction;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del destino de logs en archivos mapeados.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Se escriben 1.000.000 de líneas de log (unos 80 bytes cada una) y se compara:
+ * 1. FileWriter con flush() en cada línea (cada mensaje llega al sistema operativo al momento).
+ * 2. BufferedWriter sobre FileWriter (flush solo al final: una caída del proceso pierde el buffer).
+ * 3. MappedFileLogSink con segmentos de 16 MB y fsync cada segundo.
+ * Se verifica que cada estrategia haya escrito todas las líneas.
+ */
+public class FactoryFunctionPattern_06 {
+
+    private static final int LINES = 1_000_000;
+    private static final int SEGMENT_BYTES = 16 * 1024 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        Path root = Files.createTempDirectory("logs");
+        try {
+            // Ejemplo de uso con la fábrica
+            try (MappedFileLogSink sink = new MappedFileLogSink(root.resolve("demo"), "app", 64 * 1024,
+                    Duration.ofHours(1), Duration.ofSeconds(1))) {
+                LoggerFunction info = FactoryFunctionPattern_02.createLogger(LogLevel.info, sink);
+                LoggerFunction error = FactoryFunctionPattern_02.createLogger(LogLevel.error, sink);
+                info.logger("Aplicación iniciada correctamente.");
+                error.logger("Error de conexión a la base de datos: {}", "timeout");
+            }
+            System.out.println(GREEN + "Contenido de app-00001.log:" + RESET);
+            Files.readAllLines(root.resolve("demo").resolve("app-00001.log")).forEach(System.out::println);
+
+            System.out.println(GREEN + "\n" + LINES + " líneas de log:" + RESET);
+            System.out.println(String.format("%-34s %10s %10s %10s", "estrategia", "ns/línea", "MB/s", "archivos"));
+            for (int round = 0; round < 2; round++) {
+                // La primera ronda es de calentamiento
+                boolean print = round == 1;
+                Path dir = Files.createDirectories(root.resolve("ronda-" + round));
+
+                Path plain = dir.resolve("filewriter.log");
+                measure("FileWriter + flush por línea", print, dir, "filewriter", () -> {
+                    try (Writer writer = new FileWriter(plain.toFile(), true)) {
+                        for (int i = 0; i < LINES; i++) {
+                            writer.write(line(i));
+                            writer.flush();
+                        }
+                    }
+                });
+
+                Path buffered = dir.resolve("buffered.log");
+                measure("BufferedWriter (flush al final)", print, dir, "buffered", () -> {
+                    try (Writer writer = new BufferedWriter(new FileWriter(buffered.toFile(), true), 64 * 1024)) {
+                        for (int i = 0; i < LINES; i++) {
+                            writer.write(line(i));
+                        }
+                    }
+                });
+
+                measure("mmap rotativo + fsync cada 1 s", print, dir, "mmap", () -> {
+                    try (MappedFileLogSink sink = new MappedFileLogSink(dir, "mmap", SEGMENT_BYTES,
+                            null, Duration.ofSeconds(1))) {
+                        for (int i = 0; i < LINES; i++) {
+                            sink.write(LogLevel.info, message(i));
+                        }
+                    }
+                });
+            }
+        } finally {
+            deleteRecursively(root);
+        }
+    }
+
+    private interface IoTask {
+        void run() throws IOException;
+    }
+
+    private static void measure(String name, boolean print, Path dir, String prefix, IoTask task) throws IOException {
+        long start = System.nanoTime();
+        task.run();
+        long nanos = System.nanoTime() - start;
+
+        List<Path> files;
+        long bytes = 0;
+        long lines = 0;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> p.getFileName().toString().startsWith(prefix)).toList();
+        }
+        for (Path file : files) {
+            bytes += Files.size(file);
+            try (Stream<String> content = Files.lines(file)) {
+                lines += content.count();
+            }
+        }
+        if (lines != LINES) {
+            throw new IllegalStateException(name + ": se esperaban " + LINES + " líneas y hay " + lines);
+        }
+        if (print) {
+            System.out.println(String.format("%-34s %10.1f %10.1f %10d", name, (double) nanos / LINES,
+                    bytes / 1_048_576.0 / (nanos / 1e9), files.size()));
+        }
+    }
+
+    private static String message(int i) {
+        return "pedido " + i + " procesado por el servicio de pagos";
+    }
+
+    private static String line(int i) {
+        return "[INFO: 2025-10-21 07:00:00] " + message(i) + "\n";
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * ! Factory Function con log binario
+ * La fábrica puede entregar funciones que no arman el texto del mensaje: guardan el número de la
+ * plantilla y los argumentos en binario, y el texto se reconstruye después con un decodificador.
+ *
+ * * Es útil cuando formatear los mensajes es la parte más cara de registrar y los logs se leen
+ * * mucho menos de lo que se escriben.
+ *
+ */
+
+package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LogLevel;
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LoggerFunction;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del log binario.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Se registran 1.000.000 de eventos "Pedido {} de {} por {}" (número de pedido, usuario e importe)
+ * en un archivo de dos formas: como texto "[INFO: fecha] mensaje" y en binario. Se reporta el tamaño
+ * del archivo por evento; después se decodifica el archivo binario y se comprueba que cada mensaje
+ * coincide con el del archivo de texto.
+ *
+ * El tiempo y la memoria por evento al escribir y al decodificar se miden en BinaryLogBenchmark
+ * (src/jmh, perfil bench).
+ */
+public class FactoryFunctionPattern_07 {
+
+    private static final int EVENTS = 1_000_000;
+    static final String TEMPLATE = "Pedido {} de {} por {}";
+
+    static final String[] USERS = new String[1024];
+    static final Object[] ORDERS = new Object[1024];
+    static final Object[] AMOUNTS = new Object[1024];
+
+    static {
+        for (int i = 0; i < USERS.length; i++) {
+            USERS[i] = "usuario-" + i;
+            ORDERS[i] = (long) i * 7919;
+            AMOUNTS[i] = i * 1.25;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        // Ejemplo de uso con la fábrica
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        try (BinaryLogWriter writer = new BinaryLogWriter(memory)) {
+            LoggerFunction info = FactoryFunctionPattern_02.createLogger(LogLevel.info, writer);
+            LoggerFunction error = FactoryFunctionPattern_02.createLogger(LogLevel.error, writer);
+            info.logger("Aplicación iniciada correctamente.");
+            info.logger("Conexiones activas: {} de {}", 3, 10);
+            error.logger("Error de conexión a {}: {} reintentos, último en {} s", "db-1", -2, 0.5);
+        }
+        System.out.println(GREEN + "Log binario (" + memory.size() + " bytes) decodificado:" + RESET);
+        BinaryLogDecoder.decode(new ByteArrayInputStream(memory.toByteArray()), System.out);
+
+        Path dir = Files.createTempDirectory("binary-log");
+        Path textFile = dir.resolve("app.log");
+        Path binaryFile = dir.resolve("app.blog");
+        try {
+            try (Writer out = new BufferedWriter(new FileWriter(textFile.toFile()), 64 * 1024)) {
+                LoggerFunction info = textLogger(out);
+                for (int i = 0; i < EVENTS; i++) {
+                    info.logger(TEMPLATE, ORDERS[i & 1023], USERS[i & 1023], AMOUNTS[i & 1023]);
+                }
+            }
+            try (BinaryLogWriter writer = new BinaryLogWriter(new FileOutputStream(binaryFile.toFile()))) {
+                LoggerFunction info = FactoryFunctionPattern_02.createLogger(LogLevel.info, writer);
+                for (int i = 0; i < EVENTS; i++) {
+                    info.logger(TEMPLATE, ORDERS[i & 1023], USERS[i & 1023], AMOUNTS[i & 1023]);
+                }
+            }
+            System.out.println(GREEN + "\n" + EVENTS + " eventos con 3 argumentos:" + RESET);
+            System.out.println(String.format("%-10s %14s", "formato", "archivo/evento"));
+            System.out.println(String.format("%-10s %14.1f", "texto", (double) Files.size(textFile) / EVENTS));
+            System.out.println(String.format("%-10s %14.1f", "binario", (double) Files.size(binaryFile) / EVENTS));
+
+            // Decodifica y compara los mensajes (la fecha puede diferir entre los dos archivos)
+            StringBuilder decoded = new StringBuilder(EVENTS * 64);
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(binaryFile), 64 * 1024)) {
+                BinaryLogDecoder.decode(in, decoded);
+            }
+
+            List<String> expected = Files.readAllLines(textFile);
+            List<String> actual = decoded.toString().lines().toList();
+            if (expected.size() != actual.size()) {
+                throw new IllegalStateException("Se esperaban " + expected.size() + " líneas y hay " + actual.size());
+            }
+            for (int i = 0; i < expected.size(); i++) {
+                if (!message(expected.get(i)).equals(message(actual.get(i)))) {
+                    throw new IllegalStateException("La línea " + i + " no coincide: " + actual.get(i));
+                }
+            }
+            System.out.println(String.format("\nDecodificación: %d mensajes iguales al archivo de texto", actual.size()));
+            System.out.println("Ejemplo: " + actual.get(EVENTS - 1));
+        } finally {
+            Files.deleteIfExists(textFile);
+            Files.deleteIfExists(binaryFile);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    // Lo mismo que createLogger, sin colores y hacia el Writer
+    static LoggerFunction textLogger(Writer out) {
+        return message -> {
+            try {
+                out.write("[" + LogLevel.info.getPrefix() + ": "
+                        + FactoryFunctionPattern_02.formatDate(LocalDateTime.now()) + "] " + message + "\n");
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+
+    private static String message(String line) {
+        return line.substring(line.indexOf("] ") + 2);
+    }
+}
@@ -0,0 +1,271 @@
+package com.mms.patterns.desing.p01_creacionales.c07_factory_function;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.mms.patterns.desing.p01_creacionales.c07_factory_function.FactoryFunctionPattern_02.LogLevel;
+
+/**
+ * ! Destino de logs en archivos mapeados en memoria con rotación
+ *
+ * Caso de uso:
+ * Los logs de producción van a disco. Escribir en un segmento mapeado en memoria es copiar bytes
+ * a memoria: no hay una llamada al sistema por mensaje. Cada segmento es un archivo
+ * {@code <nombre>-00001.log}, {@code <nombre>-00002.log}, ... Si la carpeta ya tiene segmentos de una
+ * ejecución anterior, la numeración sigue desde el último.
+ *
+ * - Rotación: se pasa al siguiente segmento cuando el mensaje no cabe (tamaño) o cuando pasó
+ *   {@code rotateEvery} desde que se abrió el segmento (tiempo). Al cerrar un segmento se recorta
+ *   al tamaño escrito.
+ * - Pre-asignación: un hilo de fondo crea y mapea el siguiente segmento y toca cada página para que
+ *   el sistema operativo la reserve antes; al rotar, el segmento nuevo ya está listo.
+ * - Durabilidad: lo escrito sobrevive a la caída del proceso apenas se copia al mapeo. Ante una caída
+ *   del sistema operativo solo está garantizado lo escrito hasta el último force() (fsync), que se hace
+ *   cada {@code forceEvery}, en cada mensaje si forceEvery es cero, y al rotar y al cerrar.
+ */
+public final class MappedFileLogSink implements AutoCloseable {
+
+    private static final int PAGE_SIZE = 4096;
+
+    private final Path directory;
+    private final String baseName;
+    private final int segmentBytes;
+    private final long rotateEveryNanos;
+    private final boolean forceEachWrite;
+    private final ScheduledExecutorService background;
+
+    // Las tareas de fondo no toman el lock del destino: rotate() espera al segmento siguiente con el lock tomado
+    private volatile Segment current;
+    private CompletableFuture<Segment> next;
+    private int segmentNumber;
+    private final AtomicLong segmentsCreated = new AtomicLong();
+    private volatile boolean closed;
+
+    // Caché del texto de la fecha por segundo
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedTimestamp;
+
+    /**
+     * @param directory    Carpeta de los segmentos
+     * @param baseName     Prefijo del nombre de cada segmento
+     * @param segmentBytes Tamaño máximo de cada segmento
+     * @param rotateEvery  Antigüedad máxima de un segmento (null para rotar solo por tamaño)
+     * @param forceEvery   Cada cuánto se hace fsync (cero: en cada mensaje; null: solo al rotar y al cerrar)
+     */
+    public MappedFileLogSink(Path directory, String baseName, int segmentBytes, Duration rotateEvery, Duration forceEvery) {
+        if (segmentBytes < PAGE_SIZE) {
+            throw new IllegalArgumentException("El segmento debe tener al menos " + PAGE_SIZE + " bytes");
+        }
+        this.directory = directory;
+        this.baseName = baseName;
+        this.segmentBytes = segmentBytes;
+        this.rotateEveryNanos = rotateEvery != null ? rotateEvery.toNanos() : Long.MAX_VALUE;
+        this.forceEachWrite = forceEvery != null && forceEvery.isZero();
+        this.background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-segment-allocator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo crear la carpeta de logs " + directory, ex);
+        }
+        this.segmentNumber = lastSegmentNumber();
+        this.current = allocate(++segmentNumber);
+        this.next = preallocate(++segmentNumber);
+
+        if (forceEvery != null && !forceEvery.isZero()) {
+            long period = forceEvery.toNanos();
+            // Con retraso fijo (y no tasa fija) un force() lento no deja sin turno a la pre-asignación
+            background.scheduleWithFixedDelay(this::force, period, period, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Escribe una línea "[NIVEL: fecha] mensaje" en el segmento actual.
+     */
+    public synchronized void write(LogLevel level, String message) {
+        writeLine("[" + level.getPrefix() + ": " + timestamp(System.currentTimeMillis()) + "] " + message);
+    }
+
+    /**
+     * Escribe una línea tal cual, agregando el salto de línea.
+     */
+    public synchronized void writeLine(String line) {
+        if (closed) {
+            throw new IllegalStateException("El destino de logs está cerrado");
+        }
+        byte[] bytes = (line + '\n').getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > segmentBytes) {
+            throw new IllegalArgumentException("El mensaje (" + bytes.length + " bytes) no cabe en un segmento");
+        }
+        if (bytes.length > current.remaining() || System.nanoTime() - current.openedAt >= rotateEveryNanos) {
+            rotate();
+        }
+        current.buffer.put(bytes);
+        if (forceEachWrite) current.buffer.force();
+    }
+
+    // Cierra el segmento actual y pasa al que se preparó en segundo plano
+    private void rotate() {
+        Segment finished = current;
+        try {
+            current = next.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rotación interrumpida", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("No se pudo preparar el siguiente segmento", ex.getCause());
+        }
+        current.openedAt = System.nanoTime();
+        next = preallocate(++segmentNumber);
+        finished.close();
+    }
+
+    private CompletableFuture<Segment> preallocate(int number) {
+        return CompletableFuture.supplyAsync(() -> allocate(number), background);
+    }
+
+    // Número más alto entre los segmentos <nombre>-NNNNN.log que ya están en la carpeta (0 si no hay)
+    private int lastSegmentNumber() {
+        Pattern segmentName = Pattern.compile(Pattern.quote(baseName) + "-(\\d+)\\.log");
+        int last = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Matcher matcher = segmentName.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    last = Math.max(last, Integer.parseInt(matcher.group(1)));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo leer la carpeta de logs " + directory, ex);
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("Número de segmento inválido en " + directory, ex);
+        }
+        return last;
+    }
+
+    private Segment allocate(int number) {
+        Path file = directory.resolve(String.format("%s-%05d.log", baseName, number));
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            // Toca cada página para que el sistema la reserve ahora y no en la primera escritura
+            for (int i = 0; i < segmentBytes; i += PAGE_SIZE) {
+                buffer.put(i, (byte) 0);
+            }
+            segmentsCreated.incrementAndGet();
+            return new Segment(file, channel, buffer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo crear el segmento " + file, ex);
+        }
+    }
+
+    // Formatea la fecha solo cuando cambia el segundo
+    private String timestamp(long millis) {
+        long second = Math.floorDiv(millis, 1000);
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTimestamp = FactoryFunctionPattern_02.DATE_FORMAT.format(
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+        }
+        return cachedTimestamp;
+    }
+
+    /**
+     * Fuerza a disco lo escrito en el segmento actual (fsync).
+     */
+    public void force() {
+        // Si rotate() o close() cierran el segmento al mismo tiempo, Segment.force() no hace nada
+        current.force();
+    }
+
+    /**
+     * @return Segmentos creados (incluye el que está preparado para la próxima rotación)
+     */
+    public long getSegmentsCreated() {
+        return segmentsCreated.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        current.close();
+        background.shutdown();
+        // El segmento preparado y sin usar se descarta
+        next.thenAccept(Segment::discard);
+        try {
+            background.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private long openedAt = System.nanoTime();
+        // Protegido por el monitor del segmento: force() no toca un archivo ya recortado o cerrado
+        private boolean closed;
+
+        Segment(Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        int remaining() {
+            return buffer.remaining();
+        }
+
+        synchronized void force() {
+            if (!closed) buffer.force();
+        }
+
+        // Fuerza a disco, recorta el archivo a lo escrito y lo cierra
+        synchronized void close() {
+            if (closed) return;
+            closed = true;
+            try {
+                buffer.force();
+                channel.truncate(buffer.position());
+                channel.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("No se pudo cerrar el segmento " + file, ex);
+            }
+        }
+
+        void discard() {
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("No se pudo descartar el segmento " + file, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.mms.patterns.desing.p02_estructurales.adapter_files;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * ! Handler de java.util.logging asíncrono y por lotes
+ *
+ * Caso de uso:
+ * ConsoleHandler formatea y escribe cada registro dentro de un método synchronized y hace flush en
+ * cada uno: con muchos hilos registrando a la vez, todos esperan su turno para escribir en consola.
+ * Este handler solo deja el LogRecord en una cola acotada; un hilo de fondo los saca de a lotes,
+ * los formatea y los escribe con una sola escritura y un solo flush por lote.
+ *
+ * - Si la cola está llena, quien registra espera a que haya lugar: no se pierden mensajes.
+ * - El formatter se usa solo desde el hilo de fondo. Si el formato incluye la clase o el método que
+ *   registró (%2$s), ese dato se calcularía desde el hilo de fondo y no sería correcto.
+ * - flush() espera a que se escriba todo lo publicado hasta ese momento; close() escribe lo pendiente
+ *   y detiene el hilo. LogManager cierra los handlers al terminar la JVM, así que lo encolado no se pierde.
+ * - Después de close() no se acepta nada: los hilos que esperaban lugar en la cola se despiertan y
+ *   su registro se ignora, igual que publish() en un StreamHandler cerrado.
+ * - El hilo de fondo se crea con el primer registro publicado.
+ * - La salida no es del handler: close() hace flush pero no la cierra (igual que ConsoleHandler con System.err).
+ */
+public class AsyncBatchingHandler extends Handler {
+
+    // Registros que se formatean antes de escribir en la salida
+    private static final int MAX_BATCH = 1024;
+
+    private final PrintStream out;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Hay lugar en la cola, hay registros para el hilo de fondo, se escribió un lote
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition progress = lock.newCondition();
+    // Protegidos por lock
+    private final ArrayDeque<LogRecord> queue;
+    private Thread consumer;
+    private boolean closed;
+    private boolean consumerDone;
+    private long published;
+
+    private volatile long written;
+    private volatile long batches;
+
+    /**
+     * @param out      Salida donde se escriben los registros formateados
+     * @param capacity Registros que pueden esperar en la cola
+     */
+    public AsyncBatchingHandler(PrintStream out, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La cola necesita capacidad positiva");
+        }
+        this.out = out;
+        this.capacity = capacity;
+        this.queue = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (!isLoggable(record)) return;
+        lock.lock();
+        try {
+            if (consumer == null && !closed) startConsumer();
+            while (queue.size() == capacity && !closed) {
+                notFull.await();
+            }
+            if (closed) return;
+            queue.add(record);
+            published++;
+            notEmpty.signal();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            reportError("Registro descartado por interrupción", ex, ErrorManager.WRITE_FAILURE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Se llama con el lock tomado
+    private void startConsumer() {
+        consumer = new Thread(this::consume, "async-log-handler");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    private void consume() {
+        List<LogRecord> batch = new ArrayList<>(MAX_BATCH);
+        StringBuilder text = new StringBuilder(MAX_BATCH * 128);
+        try {
+            while (true) {
+                lock.lock();
+                try {
+                    while (queue.isEmpty() && !closed) {
+                        notEmpty.awaitUninterruptibly();
+                    }
+                    // Cerrado y sin pendientes: después de close() no entra nada más
+                    if (queue.isEmpty()) return;
+                    while (!queue.isEmpty() && batch.size() < MAX_BATCH) {
+                        batch.add(queue.poll());
+                    }
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                writeBatch(batch, text);
+            }
+        } finally {
+            lock.lock();
+            try {
+                consumerDone = true;
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Formatea el lote completo y lo escribe con una sola llamada a la salida
+    private void writeBatch(List<LogRecord> batch, StringBuilder text) {
+        for (LogRecord record : batch) {
+            try {
+                text.append(getFormatter().format(record));
+            } catch (RuntimeException ex) {
+                reportError(null, ex, ErrorManager.FORMAT_FAILURE);
+            }
+        }
+        out.append(text);
+        out.flush();
+        text.setLength(0);
+
+        lock.lock();
+        try {
+            written += batch.size();
+            batches++;
+            progress.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        batch.clear();
+    }
+
+    /**
+     * Espera a que se escriban los registros publicados hasta ahora.
+     */
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            long target = published;
+            while (written < target && !consumerDone) {
+                progress.await();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+        out.flush();
+    }
+
+    /**
+     * Deja de aceptar registros, escribe los pendientes y detiene el hilo de fondo.
+     */
+    @Override
+    public void close() {
+        Thread started;
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            started = consumer;
+            // Los productores bloqueados por la cola llena y el hilo de fondo ven el cierre
+            notFull.signalAll();
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (started != null) {
+            try {
+                started.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * @return Registros escritos en la salida
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * @return Escrituras realizadas en la salida (cada una con un lote de registros)
+     */
+    public long getBatches() {
+        return batches;
+    }
+}
@@ -0,0 +1,43 @@
+package com.mms.patterns.desing.p02_estructurales.adapter_files;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ! Reloj de baja resolución
+ *
+ * Caso de uso:
+ * Un camino muy frecuente que solo necesita la hora con precisión de milisegundos no debería pagar
+ * System.nanoTime en cada llamada. Un hilo daemon copia System.nanoTime en un campo volátil cada
+ * {@link #RESOLUTION_NANOS} y los lectores solo hacen una lectura volátil.
+ *
+ * - El hilo arranca la primera vez que se usa la clase y vive lo que la JVM.
+ * - El valor puede ir hasta una resolución por detrás de System.nanoTime, nunca por delante.
+ */
+final class CoarseClock {
+
+    static final long RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static volatile long now = System.nanoTime();
+
+    static {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> now = System.nanoTime(),
+                RESOLUTION_NANOS, RESOLUTION_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    private CoarseClock() {
+    }
+
+    /**
+     * @return Último valor de System.nanoTime copiado por el hilo del reloj
+     */
+    static long nanoTime() {
+        return now;
+    }
+}
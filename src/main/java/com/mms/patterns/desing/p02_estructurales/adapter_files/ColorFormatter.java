@@ -0,0 +1,24 @@
+package com.mms.patterns.desing.p02_estructurales.adapter_files;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Formato de SimpleFormatter con el color del nivel: SEVERE en rojo, WARNING en amarillo e INFO en verde.
+ * El color se agrega una sola vez aquí; quien registra el mensaje no debe agregarlo.
+ */
+public class ColorFormatter extends SimpleFormatter {
+
+    @Override
+    public String format(LogRecord record) {
+        String color = "";
+        if (record.getLevel() == Level.SEVERE) color = RED;
+        else if (record.getLevel() == Level.WARNING) color = YELLOW;
+        else if (record.getLevel() == Level.INFO) color = GREEN;
+
+        return color + super.format(record) + RESET;
+    }
+}
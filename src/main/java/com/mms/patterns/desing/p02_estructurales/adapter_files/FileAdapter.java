@@ -0,0 +1,335 @@
+package com.mms.patterns.desing.p02_estructurales.adapter_files;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ! Adaptador de logs que escribe en el archivo indicado
+ *
+ * Caso de uso:
+ * getFile() indica un archivo, pero LocalAdapter y LocalLogger escriben en consola. Este adaptador
+ * agrega cada mensaje al archivo con un FileChannel, con el mismo formato de LocalAdapter y sin colores.
+ *
+ * Escritura agrupada (group commit):
+ * cada llamada deja su línea en una lista pendiente. Si nadie está escribiendo, ese hilo pasa a ser
+ * el líder: toma todas las líneas pendientes, las escribe con una sola llamada al archivo y, según la
+ * durabilidad, hace fsync. Mientras tanto los demás hilos siguen acumulando líneas para el próximo
+ * lote y esperan a que el lote que contiene la suya termine. Con muchos hilos, un solo write y un solo
+ * fsync cubren muchos mensajes; con uno solo, cada mensaje es su propio lote.
+ *
+ * Al volver de writeLog/writeWarning/writeError la línea ya está en el archivo; si además sobrevive a
+ * una caída del sistema operativo depende de la durabilidad (Durability).
+ *
+ * Un FileChannel se cierra si el hilo que lo usa es interrumpido, y el archivo es compartido: el líder
+ * limpia su marca de interrupción mientras escribe y la restaura al terminar. Si igual llega una
+ * interrupción en medio de la escritura, el canal se vuelve a abrir y se sigue desde donde quedó.
+ * Un error de escritura solo lo reciben los hilos cuyas líneas estaban en ese lote.
+ */
+public class FileAdapter implements ILoggerAdapter, AutoCloseable {
+
+    public enum Durability {
+        // Sin fsync: el sistema operativo escribe a disco cuando decide
+        NONE,
+        // fsync desde un hilo de fondo cada cierto tiempo
+        PERIODIC,
+        // fsync de cada lote antes de liberar a los hilos que esperan
+        PER_BATCH
+    }
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final String file;
+    private volatile FileChannel channel;
+    private final Durability durability;
+    private final ScheduledExecutorService syncer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition committed = lock.newCondition();
+    // Protegidos por lock: líneas pendientes y número de turno de la última línea agregada y escrita
+    private List<byte[]> pending = new ArrayList<>();
+    private long lastTicket;
+    private long committedTicket;
+    private boolean writing;
+    // Lotes que fallaron, por su último turno; se quitan cuando todos sus hilos vieron el error
+    private final TreeMap<Long, BatchFailure> failures = new TreeMap<>();
+    private boolean closed;
+    // Se marca antes de cerrar el canal para no volver a abrirlo
+    private volatile boolean released;
+
+    // Solo lo usa el líder del lote
+    private ByteBuffer batchBuffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong fsyncs = new AtomicLong();
+
+    private static final class BatchFailure {
+        private final long firstTicket;
+        private final IOException error;
+        private long unreported;
+
+        private BatchFailure(long firstTicket, long lastTicket, IOException error) {
+            this.firstTicket = firstTicket;
+            this.error = error;
+            this.unreported = lastTicket - firstTicket + 1;
+        }
+    }
+
+    /**
+     * @param file       Archivo de log (se crea si no existe; se agrega al final)
+     * @param durability Cuándo se hace fsync
+     * @param syncEvery  Intervalo de fsync con PERIODIC (se ignora con las demás)
+     */
+    public FileAdapter(String file, Durability durability, Duration syncEvery) {
+        this.file = file;
+        this.durability = durability;
+        try {
+            this.channel = open();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo abrir el archivo de log " + file, ex);
+        }
+
+        if (durability == Durability.PERIODIC) {
+            if (syncEvery == null || syncEvery.isNegative() || syncEvery.isZero()) {
+                throw new IllegalArgumentException("PERIODIC necesita un intervalo de fsync positivo");
+            }
+            this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "log-file-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = syncEvery.toNanos();
+            syncer.scheduleAtFixedRate(this::sync, period, period, TimeUnit.NANOSECONDS);
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    public FileAdapter(String file, Durability durability) {
+        this(file, durability, Duration.ofSeconds(1));
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(Path.of(file), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // Reemplaza el canal que cerró una interrupción (si otro hilo no lo reemplazó ya)
+    private synchronized void reopen(FileChannel broken, ClosedChannelException cause) throws IOException {
+        if (released) throw cause;
+        if (channel == broken) {
+            channel = open();
+        }
+    }
+
+    @Override
+    public String getFile() {
+        return file;
+    }
+
+    @Override
+    public void writeLog(String msg) {
+        append("INFO   ", " Log] ", msg);
+    }
+
+    @Override
+    public void writeWarning(String msg) {
+        append("WARNING", " Warning] ", msg);
+    }
+
+    @Override
+    public void writeError(String msg) {
+        append("SEVERE ", " Error] ", msg);
+    }
+
+    // La línea se arma fuera del lock; dentro solo se agrega a la lista pendiente
+    private void append(String level, String kind, String msg) {
+        long start = System.nanoTime();
+        String line = "[" + LocalDateTime.now().format(DATE_FORMAT) + "] [" + level + "] [" + file + kind + msg + "\n";
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("El adaptador de logs está cerrado");
+            }
+            pending.add(bytes);
+            long ticket = ++lastTicket;
+            while (committedTicket < ticket) {
+                if (writing) {
+                    committed.awaitUninterruptibly();
+                } else {
+                    lead();
+                }
+            }
+            Map.Entry<Long, BatchFailure> failed = failures.ceilingEntry(ticket);
+            if (failed != null && failed.getValue().firstTicket <= ticket) {
+                BatchFailure failure = failed.getValue();
+                if (--failure.unreported == 0) failures.remove(failed.getKey());
+                throw new UncheckedIOException("No se pudo escribir en " + file, failure.error);
+            }
+        } finally {
+            lock.unlock();
+        }
+        latency.record(System.nanoTime() - start);
+    }
+
+    // El líder escribe el lote sin el lock, para que los demás hilos sigan agregando líneas
+    private void lead() {
+        writing = true;
+        List<byte[]> batch = pending;
+        long batchStart = committedTicket + 1;
+        long batchEnd = lastTicket;
+        pending = new ArrayList<>();
+        IOException error = null;
+
+        lock.unlock();
+        // Una interrupción pendiente cerraría el canal de todos en el primer write
+        boolean interrupted = Thread.interrupted();
+        try {
+            interrupted |= writeBatch(batch);
+        } catch (IOException ex) {
+            error = ex;
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+            lock.lock();
+            if (error != null) failures.put(batchEnd, new BatchFailure(batchStart, batchEnd, error));
+            committedTicket = batchEnd;
+            writing = false;
+            committed.signalAll();
+        }
+    }
+
+    // Devuelve true si llegó una interrupción mientras se escribía (se limpió para poder seguir)
+    private boolean writeBatch(List<byte[]> batch) throws IOException {
+        int size = 0;
+        for (byte[] line : batch) {
+            size += line.length;
+        }
+        if (size > batchBuffer.capacity()) {
+            batchBuffer = ByteBuffer.allocateDirect(Integer.highestOneBit(size) << 1);
+        }
+        batchBuffer.clear();
+        for (byte[] line : batch) {
+            batchBuffer.put(line);
+        }
+        batchBuffer.flip();
+        boolean interrupted = false;
+        // Con APPEND, lo que ya se escribió no se repite: se sigue desde la posición del buffer
+        while (batchBuffer.hasRemaining()) {
+            FileChannel current = channel;
+            try {
+                current.write(batchBuffer);
+            } catch (ClosedChannelException ex) {
+                interrupted |= Thread.interrupted();
+                reopen(current, ex);
+            }
+        }
+        batches.incrementAndGet();
+        while (durability == Durability.PER_BATCH) {
+            FileChannel current = channel;
+            try {
+                current.force(false);
+                fsyncs.incrementAndGet();
+                break;
+            } catch (ClosedChannelException ex) {
+                interrupted |= Thread.interrupted();
+                reopen(current, ex);
+            }
+        }
+        return interrupted;
+    }
+
+    private void sync() {
+        FileChannel current = channel;
+        try {
+            if (current.isOpen()) {
+                current.force(false);
+                fsyncs.incrementAndGet();
+            }
+        } catch (ClosedChannelException ex) {
+            // Lo cerró una interrupción del líder: el próximo write lo vuelve a abrir
+        } catch (IOException ex) {
+            // El próximo fsync lo vuelve a intentar; close() hace el último
+        }
+    }
+
+    /**
+     * @return Latencias de writeLog/writeWarning/writeError, desde que se llama hasta que la línea está escrita
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return Escrituras al archivo (cada una con un lote de líneas)
+     */
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * @return fsync realizados (incluye el del cierre)
+     */
+    public long getFsyncs() {
+        return fsyncs.get();
+    }
+
+    /**
+     * Espera a que se escriban las líneas pendientes, hace fsync y cierra el archivo.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            // Los hilos que ya agregaron su línea la escriben antes de cerrar el archivo
+            while (writing || committedTicket < lastTicket) {
+                committed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (syncer != null) {
+            // Sin shutdownNow: interrumpir al hilo de fsync cerraría el canal
+            syncer.shutdown();
+            try {
+                syncer.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        released = true;
+        boolean interrupted = Thread.interrupted();
+        try {
+            FileChannel current = channel;
+            current.force(false);
+            fsyncs.incrementAndGet();
+            current.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo cerrar el archivo de log " + file, ex);
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.mms.patterns.desing.p02_estructurales.adapter_files;
+
+// Interfaz de logging que usa la aplicación; cada adaptador la implementa sobre otra librería o destino
+public interface ILoggerAdapter {
+    String getFile();
+
+    void writeLog(String msg);
+
+    void writeWarning(String msg);
+
+    void writeError(String msg);
+}
@@ -0,0 +1,95 @@
+package com.mms.patterns.desing.p02_estructurales.adapter_files;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ! Histograma de latencias concurrente
+ *
+ * Caso de uso:
+ * Registrar la latencia de cada llamada desde muchos hilos sin guardar cada valor ni bloquear.
+ * Los valores se agrupan en intervalos de ancho proporcional a su magnitud (16 por cada potencia de 2),
+ * así que un percentil se reporta con un error menor al 6,25% usando un arreglo fijo de contadores.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Registra una latencia en nanosegundos (los valores negativos cuentan como 0).
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucket(value));
+        count.incrementAndGet();
+        long previous;
+        while (value > (previous = max.get()) && !max.compareAndSet(previous, value)) {
+            // Otro hilo cambió el máximo: se vuelve a comparar
+        }
+    }
+
+    // Los valores menores a 16 tienen su propio intervalo; el resto se agrupa por exponente y 4 bits siguientes
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // Mayor valor que cae en el intervalo
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + (long) (bucket % SUB_BUCKETS)) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    /**
+     * @param percentile Percentil entre 0 y 100 (por ejemplo 99.9)
+     * @return Latencia en nanosegundos por debajo de la cual está ese porcentaje de los valores
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentil fuera de rango: " + percentile);
+        }
+        long total = count.get();
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        max.set(0);
+    }
+
+    /**
+     * @return "p50=.. p99=.. p99.9=.. max=.." en microsegundos
+     */
+    @Override
+    public String toString() {
+        return String.format("p50=%.1f p99=%.1f p99.9=%.1f max=%.1f µs", percentile(50) / 1e3,
+                percentile(99) / 1e3, percentile(99.9) / 1e3, getMax() / 1e3);
+    }
+}
@@ -0,0 +1,127 @@
+package com.mms.patterns.desing.p02_estructurales.adapter_files;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * ! Registro de escritores de LocalAdapter por archivo
+ *
+ * Caso de uso:
+ * Si todos los LocalAdapter comparten un solo Logger y un solo handler, los adaptadores de archivos
+ * que no tienen nada que ver compiten por la misma cola. El registro crea (o reutiliza) un escritor
+ * por cada archivo distinto: un Logger con su propio AsyncBatchingHandler, es decir, su propia cola,
+ * su propio buffer y su propio hilo que escribe y hace flush.
+ *
+ * Orden (Ordering):
+ * - PER_FILE: un escritor por archivo. Los mensajes de un mismo archivo salen en orden; entre archivos
+ *   distintos el orden en la salida no está garantizado.
+ * - GLOBAL: todos los archivos comparten un escritor, así que la salida respeta el orden en que se
+ *   registraron todos los mensajes, a costa de que todos compitan por la misma cola.
+ */
+public class LocalAdapterRegistry implements AutoCloseable {
+
+    public enum Ordering {
+        PER_FILE, GLOBAL
+    }
+
+    static {
+        System.setProperty("java.util.logging.SimpleFormatter.format",
+                "[%1$tF %1$tT] [%4$-7s] %5$s%n");
+    }
+
+    private static final LocalAdapterRegistry DEFAULT = createDefault();
+
+    private final PrintStream out;
+    private final Ordering ordering;
+    private final int capacity;
+    private final ConcurrentHashMap<String, Writer> writers = new ConcurrentHashMap<>();
+    // Escritor único con GLOBAL
+    private final Writer shared;
+
+    /**
+     * @param out      Salida de los escritores
+     * @param ordering Un escritor por archivo o uno compartido
+     * @param capacity Registros que pueden esperar en la cola de cada escritor
+     */
+    public LocalAdapterRegistry(PrintStream out, Ordering ordering, int capacity) {
+        this.out = out;
+        this.ordering = ordering;
+        this.capacity = capacity;
+        this.shared = ordering == Ordering.GLOBAL ? newWriter() : null;
+    }
+
+    // Registro de los LocalAdapter creados con new LocalAdapter(file): escribe en System.err como ConsoleHandler
+    private static LocalAdapterRegistry createDefault() {
+        LocalAdapterRegistry registry = new LocalAdapterRegistry(System.err, Ordering.PER_FILE, 8192);
+        // Sus loggers no están registrados en LogManager: se cierran al terminar para escribir lo pendiente
+        Runtime.getRuntime().addShutdownHook(new Thread(registry::close, "local-adapter-shutdown"));
+        return registry;
+    }
+
+    public static LocalAdapterRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return Un adaptador para el archivo que usa el escritor de ese archivo (creándolo si no existe)
+     */
+    public LocalAdapter adapter(String file) {
+        return new LocalAdapter(file, writerFor(file));
+    }
+
+    Logger writerFor(String file) {
+        if (shared != null) {
+            writers.putIfAbsent(file, shared);
+            return shared.logger;
+        }
+        return writers.computeIfAbsent(file, ignored -> newWriter()).logger;
+    }
+
+    private Writer newWriter() {
+        AsyncBatchingHandler handler = new AsyncBatchingHandler(out, capacity);
+        handler.setFormatter(new ColorFormatter());
+        // Logger anónimo: cada registro tiene los suyos aunque los nombres de archivo coincidan
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+        return new Writer(logger, handler);
+    }
+
+    public Ordering getOrdering() {
+        return ordering;
+    }
+
+    /**
+     * @return Escritores distintos (cada uno con su cola y su hilo)
+     */
+    public int getWriterCount() {
+        return distinctWriters().size();
+    }
+
+    /**
+     * Espera a que todos los escritores escriban lo registrado hasta ahora.
+     */
+    public void flush() {
+        for (Writer writer : distinctWriters()) {
+            writer.handler.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Writer writer : distinctWriters()) {
+            writer.handler.close();
+        }
+    }
+
+    private List<Writer> distinctWriters() {
+        if (shared != null) return List.of(shared);
+        return new ArrayList<>(writers.values());
+    }
+
+    private record Writer(Logger logger, AsyncBatchingHandler handler) {
+    }
+}
@@ -1,13 +1,22 @@
 package com.mms.patterns.desing.p02_estructurales.adapter_files;
 
+import java.io.PrintStream;
+
 import static com.mms.patterns.desing.utils.ConsoleColors.*;
 
 public class LocalLogger {
 
     private final String file;
+    // null: System.out vigente en cada llamada
+    private final PrintStream out;
 
     public LocalLogger(String file) {
+        this(file, null);
+    }
+
+    public LocalLogger(String file, PrintStream out) {
         this.file = file;
+        this.out = out;
     }
 
     public String getFile() {
@@ -15,14 +24,18 @@ public class LocalLogger {
     }
 
     public void writeLog(String msg) {
-        System.out.println("[" + file + " Log] " + msg);
+        out().println("[" + file + " Log] " + msg);
     }
 
     public void writeError(String msg) {
-        System.out.println("[" + file + " error] " + RED + msg + RESET);
+        out().println("[" + file + " error] " + RED + msg + RESET);
     }
 
     public void writeWarning(String msg) {
-        System.out.println("[" + file + " warning] " + YELLOW + msg + RESET);
+        out().println("[" + file + " warning] " + YELLOW + msg + RESET);
+    }
+
+    private PrintStream out() {
+        return out != null ? out : System.out;
     }
 }
@@ -0,0 +1,228 @@
+package com.mms.patterns.desing.p02_estructurales.adapter_files;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * ! Banco de pruebas de rendimiento para cualquier ILoggerAdapter
+ *
+ * Caso de uso:
+ * Comparar implementaciones de ILoggerAdapter con los mismos criterios antes de elegir una.
+ * Sigue el esquema de JMH: iteraciones de calentamiento que no se reportan y después iteraciones de
+ * medición de duración fija, en las que N hilos llaman a writeLog sin parar. Es una prueba rápida
+ * dentro del mismo proceso; las mediciones con JMH (un proceso por prueba, -prof gc, SampleTime)
+ * están en src/jmh/java y se ejecutan con el perfil bench de Maven.
+ *
+ * Por cada configuración (adaptador, destino, hilos) se reporta:
+ * - Mensajes por segundo: media y desvío entre iteraciones. Incluye esperar a que el adaptador escriba
+ *   lo pendiente (flush), así un adaptador asíncrono no parece más rápido solo por acumular en su cola.
+ * - Bytes reservados por llamada en los hilos que registran (no cuenta los hilos de fondo del adaptador).
+ * - Percentiles de latencia de cada llamada (incluyen dos lecturas de System.nanoTime).
+ *
+ * Cada adaptador se crea con una fábrica que recibe la salida del destino y debe escribir en ella
+ * (System.out no se redirige).
+ */
+public final class LoggerBenchmark {
+
+    private static final String MESSAGE = "Pedido procesado correctamente";
+
+    // Salida de la prueba
+    public enum Target {
+        // Se descarta todo (mide el costo del adaptador, no el de la salida)
+        NULL,
+        // Archivo temporal con buffer (se borra al terminar)
+        FILE
+    }
+
+    /**
+     * Adaptador bajo prueba y cómo esperar a que escriba lo pendiente y cerrarlo.
+     */
+    public record Subject(ILoggerAdapter adapter, Runnable flush, Runnable close) {
+
+        // Para adaptadores que escriben antes de volver de cada llamada
+        public static Subject of(ILoggerAdapter adapter) {
+            return new Subject(adapter, () -> { }, () -> { });
+        }
+    }
+
+    public record Result(String name, Target target, int threads, double opsPerSecond, double stdDev,
+                         double bytesPerOp, LatencyHistogram latency) {
+    }
+
+    private final int warmups;
+    private final int iterations;
+    private final Duration iterationTime;
+    private final List<Result> results = new ArrayList<>();
+
+    /**
+     * @param warmups       Iteraciones de calentamiento
+     * @param iterations    Iteraciones medidas
+     * @param iterationTime Duración de cada iteración
+     */
+    public LoggerBenchmark(int warmups, int iterations, Duration iterationTime) {
+        if (warmups < 0 || iterations < 1) {
+            throw new IllegalArgumentException("Se necesita al menos una iteración medida");
+        }
+        this.warmups = warmups;
+        this.iterations = iterations;
+        this.iterationTime = iterationTime;
+    }
+
+    /**
+     * Mide un adaptador con un destino y una cantidad de hilos.
+     *
+     * @param name    Nombre en el reporte
+     * @param factory Crea el adaptador que escribe en la salida recibida
+     */
+    public Result run(String name, Function<PrintStream, Subject> factory, Target target, int threads) {
+        Path file = null;
+        try {
+            OutputStream raw;
+            if (target == Target.FILE) {
+                file = Files.createTempFile("logger-benchmark", ".log");
+                raw = new FileOutputStream(file.toFile());
+            } else {
+                raw = OutputStream.nullOutputStream();
+            }
+            // Como System.out: con buffer y flush en cada println
+            PrintStream out = new PrintStream(new BufferedOutputStream(raw), true);
+
+            Subject subject = factory.apply(out);
+            LatencyHistogram latency = new LatencyHistogram();
+            double[] opsPerSecond = new double[iterations];
+            long measuredOps = 0;
+            long measuredBytes = 0;
+            for (int i = 0; i < warmups + iterations; i++) {
+                if (i == warmups) latency.reset();
+                long[] iteration = iterate(subject, threads, latency);
+                if (i >= warmups) {
+                    opsPerSecond[i - warmups] = iteration[0] / (iteration[2] / 1e9);
+                    measuredOps += iteration[0];
+                    measuredBytes += iteration[1];
+                }
+            }
+            subject.close().run();
+            out.close();
+
+            Result result = new Result(name, target, threads, mean(opsPerSecond), stdDev(opsPerSecond),
+                    (double) measuredBytes / measuredOps, latency);
+            results.add(result);
+            return result;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo preparar el destino " + target, ex);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ex) {
+                    // Archivo temporal: si no se puede borrar, lo borra el sistema
+                }
+            }
+        }
+    }
+
+    // Una iteración: {mensajes, bytes reservados por los hilos, nanosegundos hasta que todo quedó escrito}
+    private long[] iterate(Subject subject, int threads, LatencyHistogram latency) {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        LongAdder ops = new LongAdder();
+        LongAdder bytes = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        Stop stop = new Stop();
+        ILoggerAdapter adapter = subject.adapter();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().name("benchmark-" + t).start(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                long allocated = mx.getCurrentThreadAllocatedBytes();
+                long count = 0;
+                while (!stop.stopped) {
+                    long start = System.nanoTime();
+                    adapter.writeLog(MESSAGE);
+                    latency.record(System.nanoTime() - start);
+                    count++;
+                }
+                bytes.add(mx.getCurrentThreadAllocatedBytes() - allocated);
+                ops.add(count);
+            }));
+        }
+
+        try {
+            ready.await();
+            long start = System.nanoTime();
+            go.countDown();
+            Thread.sleep(iterationTime.toMillis());
+            stop.stopped = true;
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            subject.flush().run();
+            return new long[] { ops.sum(), bytes.sum(), System.nanoTime() - start };
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Prueba interrumpida", ex);
+        }
+    }
+
+    private static final class Stop {
+        private volatile boolean stopped;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static double stdDev(double[] values) {
+        if (values.length < 2) return 0;
+        double mean = mean(values);
+        double sum = 0;
+        for (double value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(sum / (values.length - 1));
+    }
+
+    /**
+     * @return Resultados de todas las configuraciones medidas, en orden
+     */
+    public List<Result> getResults() {
+        return List.copyOf(results);
+    }
+
+    /**
+     * Imprime una tabla con los resultados.
+     */
+    public void print(PrintStream out) {
+        out.println(String.format("%-14s %-6s %6s %14s %10s %12s %10s %10s %10s",
+                "adaptador", "salida", "hilos", "mensajes/s", "± desvío", "bytes/msg", "p50 µs", "p99 µs", "p99.9 µs"));
+        for (Result result : results) {
+            out.println(String.format("%-14s %-6s %6d %14.0f %10.0f %12.1f %10.1f %10.1f %10.1f",
+                    result.name(), result.target(), result.threads(), result.opsPerSecond(), result.stdDev(),
+                    result.bytesPerOp(), result.latency().percentile(50) / 1e3,
+                    result.latency().percentile(99) / 1e3, result.latency().percentile(99.9) / 1e3));
+        }
+    }
+}
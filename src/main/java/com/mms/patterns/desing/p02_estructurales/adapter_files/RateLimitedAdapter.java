@@ -0,0 +1,206 @@
+package com.mms.patterns.desing.p02_estructurales.adapter_files;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * ! Decorador que limita la cantidad de mensajes por clave
+ *
+ * Caso de uso:
+ * Cuando algo falla dentro de un bucle, writeError se llama miles de veces por segundo: la consola se
+ * llena del mismo mensaje y escribirlo hace todavía más lento el camino que ya está fallando.
+ * Este decorador envuelve cualquier ILoggerAdapter y deja pasar, por cada clave de mensaje, una
+ * ráfaga de {@code burst} mensajes y después {@code perSecond} por segundo. Los demás se cuentan y,
+ * cuando vuelve a pasar un mensaje de esa clave, antes se escribe "N mensajes suprimidos: clave".
+ *
+ * - La clave sale del mensaje con {@code keyOf} (por defecto, el mensaje completo). Para mensajes con
+ *   datos variables conviene una clave sin ellos, por ejemplo el texto hasta los dos puntos.
+ * - Cada tipo de mensaje (log, advertencia, error) tiene sus propias claves.
+ * - Cada clave es un balde de fichas con el algoritmo GCRA: en lugar de fichas se guarda el instante
+ *   teórico en que el balde vuelve a estar vacío.
+ * - La hora sale de CoarseClock (resolución de 1 ms, actualizado por un hilo aparte), así que ninguna
+ *   llamada paga System.nanoTime. Con más de 1000 mensajes por segundo por clave, los que llegan dentro
+ *   del mismo milisegundo se cuentan todos con la misma hora: la ráfaga absorbe esa diferencia.
+ * - Un mensaje que pasa cuesta una sola operación atómica: un getAndAdd sobre el instante teórico del
+ *   balde, sin bucle de reintentos. Se suman keyOf.apply, la búsqueda en el ConcurrentHashMap y la
+ *   lectura volátil del contador de suprimidos. Un mensaje suprimido con el balde ya lleno solo lee el
+ *   balde e incrementa el contador. El decorador no reserva memoria salvo al crear el balde de una
+ *   clave nueva; la que reserve keyOf corre por cuenta de quien la pasa.
+ * - Para no crecer sin límite, pasadas {@code maxKeys} claves distintas las nuevas comparten un balde.
+ * - Si una clave deja de aparecer mientras tenía mensajes suprimidos, el resumen se escribe con
+ *   reportSuppressed() (por ejemplo, desde una tarea periódica o al terminar).
+ */
+public class RateLimitedAdapter implements ILoggerAdapter {
+
+    private static final String OVERFLOW_KEY = "(otros mensajes)";
+
+    private final ILoggerAdapter delegate;
+    private final Function<String, String> keyOf;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+
+    // Claves de cada tipo de mensaje
+    private final Keys logKeys = new Keys(Kind.LOG);
+    private final Keys warningKeys = new Keys(Kind.WARNING);
+    private final Keys errorKeys = new Keys(Kind.ERROR);
+    private final List<Keys> allKeys = List.of(logKeys, warningKeys, errorKeys);
+    private final AtomicLong reported = new AtomicLong();
+
+    private enum Kind {
+        LOG, WARNING, ERROR
+    }
+
+    /**
+     * @param delegate  Adaptador que escribe los mensajes que pasan
+     * @param perSecond Mensajes por segundo que pasan por clave, una vez agotada la ráfaga
+     * @param burst     Mensajes seguidos que pasan por clave antes de limitar
+     * @param keyOf     Clave de cada mensaje
+     * @param maxKeys   Claves distintas con balde propio por tipo de mensaje
+     */
+    public RateLimitedAdapter(ILoggerAdapter delegate, double perSecond, int burst,
+                              Function<String, String> keyOf, int maxKeys) {
+        if (perSecond <= 0 || burst < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException("perSecond, burst y maxKeys deben ser positivos");
+        }
+        this.delegate = delegate;
+        this.keyOf = keyOf;
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / perSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.maxKeys = maxKeys;
+    }
+
+    public RateLimitedAdapter(ILoggerAdapter delegate, double perSecond, int burst) {
+        this(delegate, perSecond, burst, Function.identity(), 1024);
+    }
+
+    @Override
+    public String getFile() {
+        return delegate.getFile();
+    }
+
+    @Override
+    public void writeLog(String msg) {
+        write(logKeys, msg);
+    }
+
+    @Override
+    public void writeWarning(String msg) {
+        write(warningKeys, msg);
+    }
+
+    @Override
+    public void writeError(String msg) {
+        write(errorKeys, msg);
+    }
+
+    private void write(Keys keys, String msg) {
+        Bucket bucket = keys.bucket(keyOf.apply(msg), maxKeys);
+        if (!bucket.tryAcquire(CoarseClock.nanoTime(), intervalNanos, burstNanos)) {
+            bucket.suppressed.incrementAndGet();
+            return;
+        }
+        // Una lectura volátil más: el contador solo se escribe si hay algo que reportar
+        if (bucket.suppressed.get() != 0) report(keys.kind, bucket);
+        send(keys.kind, msg);
+    }
+
+    private void report(Kind kind, Bucket bucket) {
+        long count = bucket.suppressed.getAndSet(0);
+        if (count > 0) {
+            reported.addAndGet(count);
+            send(kind, count + " mensajes suprimidos: " + bucket.key);
+        }
+    }
+
+    private void send(Kind kind, String msg) {
+        switch (kind) {
+            case LOG -> delegate.writeLog(msg);
+            case WARNING -> delegate.writeWarning(msg);
+            case ERROR -> delegate.writeError(msg);
+        }
+    }
+
+    /**
+     * Escribe el resumen de las claves que tienen mensajes suprimidos pendientes de reportar.
+     */
+    public void reportSuppressed() {
+        for (Keys keys : allKeys) {
+            for (Bucket bucket : keys.buckets.values()) {
+                if (bucket.suppressed.get() != 0) report(keys.kind, bucket);
+            }
+            if (keys.overflow.suppressed.get() != 0) report(keys.kind, keys.overflow);
+        }
+    }
+
+    /**
+     * @return Mensajes suprimidos desde que se creó el decorador
+     */
+    public long getSuppressed() {
+        long pending = 0;
+        for (Keys keys : allKeys) {
+            for (Bucket bucket : keys.buckets.values()) {
+                pending += bucket.suppressed.get();
+            }
+            pending += keys.overflow.suppressed.get();
+        }
+        return reported.get() + pending;
+    }
+
+    // Baldes de un tipo de mensaje, más el balde compartido por las claves que exceden maxKeys
+    private static final class Keys {
+        private final Kind kind;
+        private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+        private final Bucket overflow = new Bucket(OVERFLOW_KEY);
+
+        Keys(Kind kind) {
+            this.kind = kind;
+        }
+
+        Bucket bucket(String key, int maxKeys) {
+            Bucket bucket = buckets.get(key);
+            if (bucket != null) return bucket;
+            if (buckets.size() >= maxKeys) return overflow;
+            return buckets.computeIfAbsent(key, Bucket::new);
+        }
+    }
+
+    // Balde de fichas GCRA: tat es el instante teórico en que el balde queda vacío
+    private static final class Bucket {
+        private final String key;
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong suppressed = new AtomicLong();
+
+        Bucket(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Pasa si al agregar el mensaje el balde no supera la ráfaga.
+         *
+         * El mensaje se suma siempre con un getAndAdd y se decide con el valor anterior:
+         * - Si el instante teórico ya quedó en el pasado, el balde estaba vacío: pasa y el instante se
+         *   adelanta hasta now + interval. Si varios hilos llegan a la vez a un balde vacío, alguno de
+         *   sus mensajes puede no quedar sumado; como mucho deja pasar un mensaje de más por hilo.
+         * - Si supera la ráfaga, se resta lo sumado. Mientras tanto otro hilo puede ver el balde
+         *   un mensaje más lleno y suprimir el suyo: el error es siempre hacia dejar pasar menos.
+         *   Para que esto solo ocurra en el borde, un balde que ya está lleno se detecta antes con
+         *   una lectura y ahí no se suma nada.
+         */
+        boolean tryAcquire(long now, long interval, long burst) {
+            // Con el balde lleno se suprime solo leyendo, sin sumar ni restar
+            long current = tat.get();
+            if (current > now && current - now > burst - interval) return false;
+            long previous = tat.getAndAdd(interval);
+            if (previous < now) {
+                tat.accumulateAndGet(now + interval, Math::max);
+                return true;
+            }
+            if (previous + interval - now <= burst) return true;
+            tat.getAndAdd(-interval);
+            return false;
+        }
+    }
+}
@@ -13,30 +13,184 @@
 
 package com.mms.patterns.desing.p02_estructurales.c01_adapter;
 
+import java.io.PrintStream;
+
 import static com.mms.patterns.desing.utils.ConsoleColors.*;
 
 // 1. Interfaz PaymentProcessor
 interface PaymentProcessor {
     void processPayment(Double amount);
+
+    /**
+     * Procesa un lote de pagos con importes en centavos (sin Double ni redondeos de punto flotante).
+     * Cada adaptador usa la llamada por lotes de su proveedor o, si no tiene, paga de a uno.
+     *
+     * @return El resultado de cada pago, en el mismo orden
+     */
+    PaymentBatchResult processPayments(long[] amountsInCents);
+
+    // Lote con importes en pesos: se convierten a centavos (NaN e infinito quedan rechazados)
+    default PaymentBatchResult processPayments(double[] amounts) {
+        long[] cents = new long[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            cents[i] = Math.round(amounts[i] * 100);
+        }
+        return processPayments(cents);
+    }
+}
+
+enum PaymentStatus {
+    APPROVED, REJECTED
+}
+
+// Resultado de un lote: el estado de cada pago en un arreglo, sin un objeto por pago
+class PaymentBatchResult {
+    private final PaymentStatus[] statuses;
+    private int approved;
+    private long approvedCents;
+
+    PaymentBatchResult(int size) {
+        this.statuses = new PaymentStatus[size];
+    }
+
+    void set(int index, boolean accepted, long cents) {
+        statuses[index] = accepted ? PaymentStatus.APPROVED : PaymentStatus.REJECTED;
+        if (accepted) {
+            approved++;
+            approvedCents += cents;
+        }
+    }
+
+    public PaymentStatus getStatus(int index) {
+        return statuses[index];
+    }
+
+    public boolean isApproved(int index) {
+        return statuses[index] == PaymentStatus.APPROVED;
+    }
+
+    public int size() {
+        return statuses.length;
+    }
+
+    public int getApprovedCount() {
+        return approved;
+    }
+
+    public int getRejectedCount() {
+        return statuses.length - approved;
+    }
+
+    public long getApprovedCents() {
+        return approvedCents;
+    }
 }
 
 // 2. Clases de Servicios de Pago Externos
 // Estas clases simulan los servicios externos de PayPal, Stripe y MercadoPago
+// Las llamadas por lotes rechazan importes no positivos o mayores al máximo por pago
+// Los pagos individuales se imprimen en la salida indicada (System.out por defecto)
 class PayPalService {
+    static final int MAX_BATCH = 15_000;
+    static final long MAX_CENTS = 100_000_000L;
+    private int batchCalls;
+    private final PrintStream out;
+
+    public PayPalService() {
+        this(System.out);
+    }
+
+    public PayPalService(PrintStream out) {
+        this.out = out;
+    }
+
     public void sendPayment(Double amount) {
-        System.out.println("Procesando pago de $" + amount + " con " + BLUE +"PayPal" + RESET);
+        out.println("Procesando pago de $" + amount + " con " + BLUE +"PayPal" + RESET);
+    }
+
+    // Pagos por lotes (hasta MAX_BATCH por llamada): devuelve si se aceptó cada pago
+    public boolean[] sendPayouts(long[] cents, int from, int length) {
+        if (length > MAX_BATCH) {
+            throw new IllegalArgumentException("PayPal acepta hasta " + MAX_BATCH + " pagos por lote");
+        }
+        batchCalls++;
+        boolean[] accepted = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            long amount = cents[from + i];
+            accepted[i] = amount > 0 && amount <= MAX_CENTS;
+        }
+        return accepted;
+    }
+
+    public int getBatchCalls() {
+        return batchCalls;
     }
 }
 
 class StripeService {
+    static final long MAX_CENTS = 99_999_999L;
+    private int charges;
+    private final PrintStream out;
+
+    public StripeService() {
+        this(System.out);
+    }
+
+    public StripeService(PrintStream out) {
+        this.out = out;
+    }
+
     public void makeCharge(Double amount) {
-        System.out.println("Procesando pago de $" +amount + " con " + PURPLE + "Stripe" + RESET);
+        out.println("Procesando pago de $" +amount + " con " + PURPLE + "Stripe" + RESET);
+    }
+
+    // Cobro individual en centavos; no hay llamada por lotes
+    public boolean makeCharge(long cents) {
+        charges++;
+        return cents > 0 && cents <= MAX_CENTS;
+    }
+
+    public int getCharges() {
+        return charges;
     }
 }
 
 class MercadoPagoService {
+    static final int MAX_BATCH = 500;
+    static final long MAX_CENTS = 50_000_000L;
+    static final int OK = 200;
+    static final int INVALID_AMOUNT = 400;
+    private int batchCalls;
+    private final PrintStream out;
+
+    public MercadoPagoService() {
+        this(System.out);
+    }
+
+    public MercadoPagoService(PrintStream out) {
+        this.out = out;
+    }
+
     public void pay(Double amount) {
-        System.out.println("Procesando pago de $" +amount + " con " + YELLOW + "MercadoPago" + RESET);
+        out.println("Procesando pago de $" +amount + " con " + YELLOW + "MercadoPago" + RESET);
+    }
+
+    // Pagos por lotes (hasta MAX_BATCH por llamada): devuelve un código por pago
+    public int[] payBatch(long[] cents, int from, int length) {
+        if (length > MAX_BATCH) {
+            throw new IllegalArgumentException("MercadoPago acepta hasta " + MAX_BATCH + " pagos por lote");
+        }
+        batchCalls++;
+        int[] codes = new int[length];
+        for (int i = 0; i < length; i++) {
+            long amount = cents[from + i];
+            codes[i] = amount > 0 && amount <= MAX_CENTS ? OK : INVALID_AMOUNT;
+        }
+        return codes;
+    }
+
+    public int getBatchCalls() {
+        return batchCalls;
     }
 }
 
@@ -54,6 +208,20 @@ class PayPalAdapter implements PaymentProcessor {
     public void processPayment(Double amount) {
         this.payPalService.sendPayment(amount);
     }
+
+    // Divide el lote en llamadas de hasta MAX_BATCH pagos
+    @Override
+    public PaymentBatchResult processPayments(long[] amountsInCents) {
+        PaymentBatchResult result = new PaymentBatchResult(amountsInCents.length);
+        for (int from = 0; from < amountsInCents.length; from += PayPalService.MAX_BATCH) {
+            int length = Math.min(PayPalService.MAX_BATCH, amountsInCents.length - from);
+            boolean[] accepted = this.payPalService.sendPayouts(amountsInCents, from, length);
+            for (int i = 0; i < length; i++) {
+                result.set(from + i, accepted[i], amountsInCents[from + i]);
+            }
+        }
+        return result;
+    }
 }
 
 // Adaptador para Stripe
@@ -68,6 +236,16 @@ class StripeAdapter implements PaymentProcessor {
     public void processPayment(Double amount) {
         this.stripeService.makeCharge(amount);
     }
+
+    // Stripe no tiene llamada por lotes: un cobro por pago, con el importe primitivo
+    @Override
+    public PaymentBatchResult processPayments(long[] amountsInCents) {
+        PaymentBatchResult result = new PaymentBatchResult(amountsInCents.length);
+        for (int i = 0; i < amountsInCents.length; i++) {
+            result.set(i, this.stripeService.makeCharge(amountsInCents[i]), amountsInCents[i]);
+        }
+        return result;
+    }
 }
 
 // Adaptador para MercadoPago
@@ -82,6 +260,20 @@ class MercadoPagoAdapter implements PaymentProcessor {
     public void processPayment(Double amount) {
         this.mercadoPagoService.pay(amount);
     }
+
+    // Divide el lote en llamadas de hasta MAX_BATCH pagos y traduce los códigos de respuesta
+    @Override
+    public PaymentBatchResult processPayments(long[] amountsInCents) {
+        PaymentBatchResult result = new PaymentBatchResult(amountsInCents.length);
+        for (int from = 0; from < amountsInCents.length; from += MercadoPagoService.MAX_BATCH) {
+            int length = Math.min(MercadoPagoService.MAX_BATCH, amountsInCents.length - from);
+            int[] codes = this.mercadoPagoService.payBatch(amountsInCents, from, length);
+            for (int i = 0; i < length; i++) {
+                result.set(from + i, codes[i] == MercadoPagoService.OK, amountsInCents[from + i]);
+            }
+        }
+        return result;
+    }
 }
 
 
@@ -119,5 +311,21 @@ public class AdapterPattern_02 {
 
         System.out.println("Usando MercadoPago");
         mercadoPagoProcessor.processPayment(paymentAmount);
+
+        // Lote de pagos: un solo llamado por adaptador, importes primitivos y un resultado por pago
+        double[] batch = { 100.00, 25.50, -3.00, 1_000_000.00 };
+        System.out.println("\nLote de " + batch.length + " pagos");
+        printBatch("PayPal", paypalProcessor.processPayments(batch));
+        printBatch("Stripe", stripeProcessor.processPayments(batch));
+        printBatch("MercadoPago", mercadoPagoProcessor.processPayments(batch));
+    }
+
+    private static void printBatch(String provider, PaymentBatchResult result) {
+        StringBuilder statuses = new StringBuilder();
+        for (int i = 0; i < result.size(); i++) {
+            statuses.append(i == 0 ? "" : ", ").append(result.getStatus(i));
+        }
+        System.out.println(String.format("%-12s %s -> aprobados %d, total $%d.%02d", provider, statuses,
+                result.getApprovedCount(), result.getApprovedCents() / 100, result.getApprovedCents() % 100));
     }
 }
@@ -0,0 +1,130 @@
+/**
+ * ! Patrón Adapter con handler asíncrono
+ * El adaptador oculta la librería de logging: LocalAdapter pasó de escribir con ConsoleHandler a
+ * escribir con un handler asíncrono y por lotes, y quien usa ILoggerAdapter no tuvo que cambiar nada.
+ *
+ * * Es útil cuando hay que cambiar cómo trabaja la librería de terceros (por rendimiento, por ejemplo)
+ * * sin tocar el código que la usa a través del adaptador.
+ *
+ * https://refactoring.guru/es/design-patterns/adapter
+ */
+
+package com.mms.patterns.desing.p02_estructurales.c01_adapter;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+
+import com.mms.patterns.desing.p02_estructurales.adapter_files.AsyncBatchingHandler;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.ColorFormatter;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LocalAdapter;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del handler asíncrono detrás del adaptador.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Varios hilos registran 200.000 mensajes en total con el mismo formato de LocalAdapter, primero con
+ * ConsoleHandler (synchronized y flush por registro) y después con AsyncBatchingHandler. La salida se
+ * descarta pero se cuentan sus líneas para comprobar que no se perdió ningún mensaje.
+ * Se reporta cuánto tardan los hilos en registrar y cuánto hasta que todo quedó escrito.
+ */
+public class AdapterPattern_03 {
+
+    private static final int MESSAGES = 200_000;
+    private static final int[] THREADS = { 1, 4, 16 };
+
+    public static void main(String[] args) throws InterruptedException {
+        // Uso normal: el adaptador ya trabaja con el handler asíncrono
+        final LocalAdapter logger = new LocalAdapter(AdapterPattern_03.class.getName());
+        logger.writeLog("Mensaje de un log normal");
+        logger.writeWarning("Una alerta normal, información");
+        logger.writeError("Algo muy malo salió por aquí");
+
+        System.out.println(GREEN + MESSAGES + " mensajes por configuración:" + RESET);
+        System.out.println(String.format("%-16s %6s %14s %14s %10s", "handler", "hilos", "registro ms", "escrito ms", "mensajes/s"));
+        for (int round = 0; round < 2; round++) {
+            // La primera ronda es de calentamiento
+            boolean print = round == 1;
+            for (int threads : THREADS) {
+                run("ConsoleHandler", threads, print);
+                run("asíncrono", threads, print);
+            }
+        }
+        System.out.println(YELLOW + "Procesadores disponibles: " + Runtime.getRuntime().availableProcessors() + RESET);
+    }
+
+    private static void run(String name, int threads, boolean print) throws InterruptedException {
+        LineCounter lines = new LineCounter();
+        PrintStream output = new PrintStream(lines, false);
+
+        Handler handler;
+        if (name.equals("ConsoleHandler")) {
+            // ConsoleHandler toma System.err al crearse
+            PrintStream err = System.err;
+            System.setErr(output);
+            handler = new ConsoleHandler();
+            System.setErr(err);
+        } else {
+            handler = new AsyncBatchingHandler(output, 8192);
+        }
+        handler.setFormatter(new ColorFormatter());
+        Logger logger = Logger.getLogger(AdapterPattern_03.class.getName() + "." + threads + "." + name);
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+
+        List<Thread> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            String file = "archivo-" + t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < MESSAGES / threads; i++) {
+                    logger.info("[" + file + " Log] pedido " + i + " procesado");
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long logged = System.nanoTime() - start;
+        handler.flush();
+        long written = System.nanoTime() - start;
+        handler.close();
+        logger.removeHandler(handler);
+
+        long expected = (long) (MESSAGES / threads) * threads;
+        if (lines.count.get() != expected) {
+            throw new IllegalStateException(name + ": se esperaban " + expected + " líneas y hay " + lines.count.get());
+        }
+        if (print) {
+            System.out.println(String.format("%-16s %6d %14.1f %14.1f %10.0f", name, threads, logged / 1e6,
+                    written / 1e6, expected / (written / 1e9)));
+        }
+    }
+
+    // Salida que descarta los bytes y cuenta las líneas
+    private static class LineCounter extends OutputStream {
+        private final AtomicLong count = new AtomicLong();
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') count.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            long newLines = 0;
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n') newLines++;
+            }
+            count.addAndGet(newLines);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * ! Patrón Adapter con escritura en archivo
+ * La interfaz ILoggerAdapter incluye getFile(); FileAdapter es otra implementación que sí escribe en
+ * ese archivo. Quien registra mensajes usa los mismos métodos y no sabe cómo llegan al disco.
+ *
+ * * Es útil cuando distintas implementaciones de la misma interfaz tienen distintos compromisos
+ * * (consola, archivo, durabilidad) y se eligen sin cambiar el código que registra.
+ *
+ * https://refactoring.guru/es/design-patterns/adapter
+ */
+
+package com.mms.patterns.desing.p02_estructurales.c01_adapter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.mms.patterns.desing.p02_estructurales.adapter_files.FileAdapter;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.FileAdapter.Durability;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa de FileAdapter y su escritura agrupada.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Con 1, 8 y 32 hilos se escriben 20.000 mensajes en total con cada durabilidad: sin fsync, con fsync
+ * cada 100 ms y con fsync por lote. Se reporta el rendimiento, cuántos mensajes entraron en cada
+ * escritura al archivo, la cantidad de fsync y los percentiles de latencia de cada llamada.
+ * Se comprueba que el archivo tenga todas las líneas.
+ */
+public class AdapterPattern_04 {
+
+    private static final int MESSAGES = 20_000;
+    private static final int[] THREADS = { 1, 8, 32 };
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("file-adapter");
+        try {
+            // Uso normal: mismos métodos que LocalAdapter, pero las líneas quedan en el archivo
+            Path example = dir.resolve("ejemplo.log");
+            try (FileAdapter logger = new FileAdapter(example.toString(), Durability.PER_BATCH)) {
+                logger.writeLog("Mensaje de un log normal");
+                logger.writeWarning("Una alerta normal, información");
+                logger.writeError("Algo muy malo salió por aquí");
+            }
+            System.out.println(GREEN + "Contenido de " + example.getFileName() + ":" + RESET);
+            Files.readAllLines(example).forEach(System.out::println);
+
+            System.out.println(GREEN + "\n" + MESSAGES + " mensajes por configuración:" + RESET);
+            System.out.println(String.format("%-10s %5s %12s %12s %8s   %s", "fsync", "hilos", "mensajes/s",
+                    "mensajes/lote", "fsync", "latencia por llamada"));
+            for (int round = 0; round < 2; round++) {
+                // La primera ronda es de calentamiento
+                boolean print = round == 1;
+                for (Durability durability : Durability.values()) {
+                    for (int threads : THREADS) {
+                        run(dir.resolve(durability + "-" + threads + "-" + round + ".log"), durability, threads, print);
+                    }
+                }
+            }
+            System.out.println(YELLOW + "Procesadores disponibles: " + Runtime.getRuntime().availableProcessors() + RESET);
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static void run(Path file, Durability durability, int threads, boolean print)
+            throws IOException, InterruptedException {
+        FileAdapter logger = new FileAdapter(file.toString(), durability, Duration.ofMillis(100));
+        int perThread = MESSAGES / threads;
+
+        List<Thread> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    logger.writeLog("hilo " + worker + " pedido " + i + " procesado");
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long nanos = System.nanoTime() - start;
+        logger.close();
+
+        long expected = (long) perThread * threads;
+        long lines;
+        try (Stream<String> content = Files.lines(file)) {
+            lines = content.count();
+        }
+        if (lines != expected) {
+            throw new IllegalStateException(file.getFileName() + ": se esperaban " + expected + " líneas y hay " + lines);
+        }
+        if (print) {
+            System.out.println(String.format("%-10s %5d %12.0f %12.1f %8d   %s", durability, threads,
+                    expected / (nanos / 1e9), (double) expected / logger.getBatches(), logger.getFsyncs(),
+                    logger.getLatency()));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * ! Patrón Adapter con un escritor por archivo
+ * Cada LocalAdapter obtiene su escritor de un registro: los adaptadores del mismo archivo comparten
+ * escritor y los de archivos distintos no compiten entre sí. El código que registra mensajes sigue
+ * usando la misma interfaz.
+ *
+ * * Es útil cuando muchos componentes registran en archivos distintos al mismo tiempo.
+ *
+ * https://refactoring.guru/es/design-patterns/adapter
+ */
+
+package com.mms.patterns.desing.p02_estructurales.c01_adapter;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LocalAdapter;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LocalAdapterRegistry;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LocalAdapterRegistry.Ordering;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del registro de escritores por archivo.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Con 1, 4 y 16 archivos (un hilo por archivo) se registran 100.000 mensajes en total, primero con un
+ * escritor compartido (orden global) y después con un escritor por archivo. La salida se descarta pero
+ * se cuentan sus líneas para comprobar que no se perdió ningún mensaje.
+ */
+public class AdapterPattern_05 {
+
+    private static final int MESSAGES = 100_000;
+    private static final int[] FILES = { 1, 4, 16 };
+
+    public static void main(String[] args) throws InterruptedException {
+        // Los adaptadores del mismo archivo comparten escritor
+        try (LocalAdapterRegistry registry = new LocalAdapterRegistry(System.out, Ordering.PER_FILE, 1024)) {
+            LocalAdapter orders = registry.adapter("pedidos.log");
+            LocalAdapter payments = registry.adapter("pagos.log");
+            LocalAdapter moreOrders = registry.adapter("pedidos.log");
+            orders.writeLog("Pedido 1 recibido");
+            payments.writeWarning("Pago 1 demorado");
+            moreOrders.writeLog("Pedido 2 recibido");
+            registry.flush();
+            System.out.println("Escritores para 3 adaptadores de 2 archivos: " + registry.getWriterCount());
+        }
+
+        System.out.println(GREEN + "\n" + MESSAGES + " mensajes por configuración:" + RESET);
+        System.out.println(String.format("%-10s %8s %10s %12s %12s", "orden", "archivos", "escritores", "escrito ms", "mensajes/s"));
+        for (int round = 0; round < 2; round++) {
+            // La primera ronda es de calentamiento
+            boolean print = round == 1;
+            for (int files : FILES) {
+                run(Ordering.GLOBAL, files, print);
+                run(Ordering.PER_FILE, files, print);
+            }
+        }
+        System.out.println(YELLOW + "Procesadores disponibles: " + Runtime.getRuntime().availableProcessors() + RESET);
+    }
+
+    private static void run(Ordering ordering, int files, boolean print) throws InterruptedException {
+        LineCounter lines = new LineCounter();
+        LocalAdapterRegistry registry = new LocalAdapterRegistry(new PrintStream(lines, false), ordering, 8192);
+        int perFile = MESSAGES / files;
+
+        List<Thread> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int f = 0; f < files; f++) {
+            LocalAdapter logger = registry.adapter("archivo-" + f + ".log");
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perFile; i++) {
+                    logger.writeLog("pedido " + i + " procesado");
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        registry.flush();
+        long nanos = System.nanoTime() - start;
+        int writers = registry.getWriterCount();
+        registry.close();
+
+        long expected = (long) perFile * files;
+        if (lines.count.get() != expected) {
+            throw new IllegalStateException(ordering + ": se esperaban " + expected + " líneas y hay " + lines.count.get());
+        }
+        if (print) {
+            System.out.println(String.format("%-10s %8d %10d %12.1f %12.0f", ordering, files, writers,
+                    nanos / 1e6, expected / (nanos / 1e9)));
+        }
+    }
+
+    // Salida que descarta los bytes y cuenta las líneas
+    private static class LineCounter extends OutputStream {
+        private final AtomicLong count = new AtomicLong();
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') count.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            long newLines = 0;
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n') newLines++;
+            }
+            count.addAndGet(newLines);
+        }
+    }
+}
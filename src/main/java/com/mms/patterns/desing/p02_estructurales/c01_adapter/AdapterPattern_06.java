@@ -0,0 +1,54 @@
+/**
+ * ! Patrón Adapter con un decorador que limita mensajes
+ * Como todos los adaptadores implementan ILoggerAdapter, se pueden envolver con otro que agregue
+ * comportamiento: RateLimitedAdapter deja pasar unos pocos mensajes repetidos por segundo y resume
+ * los demás en una línea "N mensajes suprimidos".
+ *
+ * * Es útil cuando un error dentro de un bucle llenaría la consola y frenaría aún más a la aplicación.
+ *
+ * https://refactoring.guru/es/design-patterns/adapter
+ */
+
+package com.mms.patterns.desing.p02_estructurales.c01_adapter;
+
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LocalAdapter;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LocalAdapterRegistry;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.RateLimitedAdapter;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa del decorador que limita mensajes.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Un bucle falla 200.000 veces seguidas y registra cada error. Con una ráfaga de 3 y 2 mensajes por
+ * segundo por clave (el texto hasta los dos puntos), en consola aparecen unas pocas líneas y el resumen.
+ *
+ * El costo por llamada, con uno y varios hilos, se mide en RateLimitedAdapterBenchmark (src/jmh, perfil bench).
+ */
+public class AdapterPattern_06 {
+
+    private static final int FAILURES = 200_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        LocalAdapter console = new LocalAdapter(AdapterPattern_06.class.getSimpleName());
+        RateLimitedAdapter limited = new RateLimitedAdapter(console, 2, 3,
+                msg -> msg.substring(0, msg.indexOf(':')), 1024);
+
+        for (int i = 0; i < FAILURES; i++) {
+            limited.writeError("Conexión rechazada: intento " + i);
+        }
+        Thread.sleep(600);
+        limited.writeError("Conexión rechazada: intento " + FAILURES);
+        limited.reportSuppressed();
+        LocalAdapterRegistry.getDefault().flush();
+        System.err.flush();
+        System.out.println(GREEN + (FAILURES + 1) + " errores registrados, " + limited.getSuppressed() + " suprimidos" + RESET);
+
+        // Pasan la ráfaga de 3 y, tras 600 ms, el mensaje que se repuso a los 500 ms
+        if (limited.getSuppressed() != FAILURES + 1 - 4) {
+            throw new IllegalStateException("Se esperaban " + (FAILURES + 1 - 4) + " mensajes suprimidos");
+        }
+    }
+}
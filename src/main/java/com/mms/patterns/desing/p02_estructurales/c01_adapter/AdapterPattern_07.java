@@ -0,0 +1,94 @@
+/**
+ * ! Patrón Adapter: comparar implementaciones
+ * Como todas las implementaciones cumplen ILoggerAdapter, se pueden medir con la misma prueba.
+ * LocalLogger no la implementa, pero se adapta con una clase anónima: es el mismo patrón Adapter
+ * aplicado a la prueba de rendimiento.
+ *
+ * * Es útil para decidir con números qué implementación usar, y para medir cualquier adaptador
+ * * nuevo con los mismos criterios.
+ *
+ * https://refactoring.guru/es/design-patterns/adapter
+ */
+
+package com.mms.patterns.desing.p02_estructurales.c01_adapter;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.function.Function;
+
+import com.mms.patterns.desing.p02_estructurales.adapter_files.ILoggerAdapter;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LocalAdapterRegistry;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LocalAdapterRegistry.Ordering;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LocalLogger;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LoggerBenchmark;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LoggerBenchmark.Subject;
+import com.mms.patterns.desing.p02_estructurales.adapter_files.LoggerBenchmark.Target;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa de la comparación de adaptadores de log.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Se mide LocalLogger (println directo en la salida) y LocalAdapter (java.util.logging con el handler asíncrono)
+ * con 1, 8 y 32 hilos, escribiendo en una salida que descarta todo y en un archivo.
+ * Cada configuración tiene 4 iteraciones de calentamiento y 3 medidas de medio segundo.
+ * Para medir otro adaptador alcanza con pasarle a run() una fábrica que lo cree.
+ * La misma comparación con JMH: mvn -Pbench package y java -jar target/benchmarks.jar -prof gc
+ */
+public class AdapterPattern_07 {
+
+    private static final int[] THREADS = { 1, 8, 32 };
+
+    public static void main(String[] args) {
+        Function<PrintStream, Subject> localLogger = out -> Subject.of(adapt(new LocalLogger("bench", out)));
+        Function<PrintStream, Subject> localAdapter = out -> {
+            LocalAdapterRegistry registry = new LocalAdapterRegistry(out, Ordering.PER_FILE, 8192);
+            return new Subject(registry.adapter("bench"), registry::flush, registry::close);
+        };
+
+        // JMH usa un proceso nuevo por prueba; aquí se hace una pasada descartada para que el JIT
+        // compile ambos caminos antes de medir
+        LoggerBenchmark discarded = new LoggerBenchmark(4, 1, Duration.ofMillis(500));
+        discarded.run("LocalLogger", localLogger, Target.NULL, 1);
+        discarded.run("LocalAdapter", localAdapter, Target.NULL, 1);
+
+        LoggerBenchmark benchmark = new LoggerBenchmark(4, 3, Duration.ofMillis(500));
+        for (Target target : Target.values()) {
+            for (int threads : THREADS) {
+                benchmark.run("LocalLogger", localLogger, target, threads);
+                benchmark.run("LocalAdapter", localAdapter, target, threads);
+            }
+        }
+
+        System.out.println(GREEN + "Comparación de adaptadores de log:" + RESET);
+        benchmark.print(System.out);
+        System.out.println(YELLOW + "Procesadores disponibles: " + Runtime.getRuntime().availableProcessors() + RESET);
+    }
+
+    // LocalLogger tiene los mismos métodos pero no implementa ILoggerAdapter
+    private static ILoggerAdapter adapt(LocalLogger logger) {
+        return new ILoggerAdapter() {
+            @Override
+            public String getFile() {
+                return logger.getFile();
+            }
+
+            @Override
+            public void writeLog(String msg) {
+                logger.writeLog(msg);
+            }
+
+            @Override
+            public void writeWarning(String msg) {
+                logger.writeWarning(msg);
+            }
+
+            @Override
+            public void writeError(String msg) {
+                logger.writeError(msg);
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * ! Patrón Adapter con pagos por lotes
+ * PaymentProcessor suma una operación por lotes. Cada adaptador la traduce a lo que ofrece su
+ * proveedor: llamadas por lotes con su tamaño máximo (PayPal, MercadoPago) o un cobro por pago
+ * cuando el proveedor no tiene lotes (Stripe). El código de negocio llama siempre igual.
+ *
+ * * Es útil cuando los proveedores ofrecen capacidades distintas y el adaptador debe aprovechar
+ * * la mejor de cada uno sin que el resto del sistema lo note.
+ *
+ * https://refactoring.guru/es/design-patterns/adapter
+ */
+
+package com.mms.patterns.desing.p02_estructurales.c01_adapter;
+
+import java.util.SplittableRandom;
+
+import static com.mms.patterns.desing.utils.ConsoleColors.*;
+
+/**
+ * Clase demostrativa de los pagos por lotes.
+ *
+ * Caso de uso en este ejemplo:
+ *
+ * Una liquidación de 300.000 pagos (algunos con importes inválidos) se procesa con
+ * processPayments(long[]) en cada proveedor. Se reportan las llamadas al proveedor y se comprueba
+ * que los tres adaptadores aprueben los mismos pagos válidos.
+ *
+ * El tiempo y la memoria por pago, frente a processPayment(Double) pago por pago, se miden en
+ * PaymentBatchBenchmark (src/jmh, perfil bench).
+ */
+public class AdapterPattern_08 {
+
+    private static final int PAYMENTS = 300_000;
+
+    public static void main(String[] args) {
+        long[] cents = settlement(PAYMENTS);
+
+        PayPalService paypal = new PayPalService();
+        StripeService stripe = new StripeService();
+        MercadoPagoService mercadoPago = new MercadoPagoService();
+        PaymentBatchResult[] results = {
+                new PayPalAdapter(paypal).processPayments(cents),
+                new StripeAdapter(stripe).processPayments(cents),
+                new MercadoPagoAdapter(mercadoPago).processPayments(cents)
+        };
+
+        System.out.println(GREEN + "Liquidación de " + PAYMENTS + " pagos:" + RESET);
+        System.out.println(String.format("%-36s %14s %10s", "variante", "llamadas", "aprobados"));
+        report("PayPal por lotes", paypal.getBatchCalls(), results[0]);
+        report("Stripe (sin lotes: un cobro por pago)", stripe.getCharges(), results[1]);
+        report("MercadoPago por lotes", mercadoPago.getBatchCalls(), results[2]);
+
+        // Los importes válidos están por debajo del máximo de los tres proveedores
+        for (int i = 0; i < PAYMENTS; i++) {
+            boolean valid = cents[i] > 0;
+            for (PaymentBatchResult result : results) {
+                if (result.isApproved(i) != valid) {
+                    throw new IllegalStateException("El pago " + i + " tiene un resultado inesperado: " + result.getStatus(i));
+                }
+            }
+        }
+        long total = results[0].getApprovedCents();
+        System.out.println(String.format("Los tres proveedores aprobaron los mismos %d pagos por $%d.%02d",
+                results[0].getApprovedCount(), total / 100, total % 100));
+    }
+
+    // Importes entre $0.01 y $5,000.00; uno de cada mil es negativo
+    static long[] settlement(int payments) {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] cents = new long[payments];
+        for (int i = 0; i < payments; i++) {
+            cents[i] = i % 1000 == 0 ? -random.nextLong(1, 10_000) : random.nextLong(1, 500_001);
+        }
+        return cents;
+    }
+
+    private static void report(String name, int calls, PaymentBatchResult result) {
+        System.out.println(String.format("%-36s %14d %10d", name, calls, result.getApprovedCount()));
+    }
+}
@@ -0,0 +1,469 @@
+package com.mms.patterns.desing.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Texto inmutable y persistente representado como un árbol balanceado (AVL) de fragmentos.
+ *
+ * - Insertar, borrar o reemplazar un rango cuesta O(log n) y solo crea los nodos del camino
+ *   modificado más los fragmentos que se cortan; el resto del árbol se comparte con la versión anterior.
+ * - Copiar un Rope es gratis: es inmutable y se puede compartir entre objetos e hilos.
+ * - equals/hashCode comparan el contenido, igual que String. Cada nodo guarda su hash y el de un
+ *   nodo interno se combina a partir de sus hijos, así que el hash de una versión editada solo
+ *   recalcula los nodos nuevos: O(log² n) en lugar de recorrer todo el texto.
+ */
+public final class Rope implements CharSequence {
+
+    // Tamaño máximo de un fragmento hoja
+    static final int LEAF_MAX = 1024;
+
+    private static final Rope EMPTY = new Rope(new Leaf(""));
+
+    private final Node root;
+
+    private Rope(Node root) {
+        this.root = root;
+    }
+
+    public static Rope empty() {
+        return EMPTY;
+    }
+
+    public static Rope of(CharSequence text) {
+        if (text instanceof Rope rope) return rope;
+        if (text == null || text.length() == 0) return EMPTY;
+        return new Rope(build(text.toString(), 0, text.length()));
+    }
+
+    // Construye un árbol perfectamente balanceado a partir de fragmentos de LEAF_MAX caracteres
+    private static Node build(String text, int start, int end) {
+        if (end - start <= LEAF_MAX) {
+            return new Leaf(text.substring(start, end));
+        }
+        int leaves = (end - start + LEAF_MAX - 1) / LEAF_MAX;
+        int mid = start + (leaves / 2) * LEAF_MAX;
+        return new Concat(build(text, start, mid), build(text, mid, end));
+    }
+
+    @Override
+    public int length() {
+        return root.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        checkIndex(index, length());
+        Node node = root;
+        while (node instanceof Concat concat) {
+            if (index < concat.left.length()) {
+                node = concat.left;
+            } else {
+                index -= concat.left.length();
+                node = concat.right;
+            }
+        }
+        return ((Leaf) node).text.charAt(index);
+    }
+
+    public Rope insert(int index, CharSequence text) {
+        return replace(index, index, text);
+    }
+
+    public Rope delete(int start, int end) {
+        return replace(start, end, "");
+    }
+
+    public Rope append(CharSequence text) {
+        return replace(length(), length(), text);
+    }
+
+    public Rope concat(Rope other) {
+        return wrap(join(root, other.root));
+    }
+
+    /**
+     * Reemplaza el rango [start, end) por {@code text}.
+     *
+     * @return Un nuevo Rope; el actual no cambia
+     */
+    public Rope replace(int start, int end, CharSequence text) {
+        checkRange(start, end, length());
+        Node[] head = split(root, start);
+        Node[] tail = split(head[1], end - start);
+        Node middle = text == null || text.length() == 0 ? null : Rope.of(text).root;
+        return wrap(join(join(head[0], middle), tail[1]));
+    }
+
+    @Override
+    public Rope subSequence(int start, int end) {
+        checkRange(start, end, length());
+        Node[] head = split(root, start);
+        return wrap(split(head[1], end - start)[0]);
+    }
+
+    // Altura del árbol; útil para verificar que las ediciones mantienen el balance
+    public int height() {
+        return root.height();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(length());
+        forEachLeaf(root, sb);
+        return sb.toString();
+    }
+
+    public boolean contentEquals(CharSequence text) {
+        if (text == null || text.length() != length()) return false;
+        LeafCursor cursor = new LeafCursor(root);
+        for (int i = 0; i < text.length(); i++) {
+            if (cursor.next() != text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Rope that)) return false;
+        if (root == that.root) return true;
+        if (length() != that.length()) return false;
+        if (root.hasHash() && that.root.hasHash() && root.hash() != that.root.hash()) return false;
+        return commonPrefixLength(that) == length();
+    }
+
+    /**
+     * Longitud del prefijo común con otro Rope.
+     * Los fragmentos compartidos entre ambos (misma instancia) se saltan sin comparar caracteres,
+     * así que comparar dos versiones de un mismo texto cuesta según lo editado, no según su tamaño.
+     */
+    public int commonPrefixLength(Rope other) {
+        return commonLength(new LeafWalker(root, true), new LeafWalker(other.root, true),
+                Math.min(length(), other.length()));
+    }
+
+    /**
+     * Longitud del sufijo común con otro Rope, sin pasar de {@code max} caracteres.
+     */
+    public int commonSuffixLength(Rope other, int max) {
+        return commonLength(new LeafWalker(root, false), new LeafWalker(other.root, false),
+                Math.min(max, Math.min(length(), other.length())));
+    }
+
+    private static int commonLength(LeafWalker a, LeafWalker b, int max) {
+        int matched = 0;
+        while (matched < max) {
+            Node nodeA = a.top();
+            Node nodeB = b.top();
+            // Mismo subárbol en la misma posición: se salta completo
+            if (nodeA == nodeB && a.offset() == 0 && b.offset() == 0 && matched + nodeA.length() <= max) {
+                matched += nodeA.length();
+                a.skip();
+                b.skip();
+                continue;
+            }
+            if (nodeA instanceof Concat || nodeB instanceof Concat) {
+                // Se baja un nivel por el lado más grande (o por el único que no es hoja)
+                if (nodeB instanceof Leaf || (nodeA instanceof Concat && nodeA.length() >= nodeB.length())) {
+                    a.descend();
+                } else {
+                    b.descend();
+                }
+                continue;
+            }
+            int step = Math.min(max - matched, Math.min(a.remaining(), b.remaining()));
+            int differs = a.mismatch(b, step);
+            if (differs >= 0) return matched + differs;
+            matched += step;
+            a.advance(step);
+            b.advance(step);
+        }
+        return matched;
+    }
+
+    // Mismo valor que String.hashCode() para el mismo texto
+    @Override
+    public int hashCode() {
+        return root.hash();
+    }
+
+    // 31^exponent con la misma aritmética (módulo 2^32) que usa String.hashCode()
+    private static int pow31(int exponent) {
+        int result = 1;
+        int base = 31;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) result *= base;
+            base *= base;
+            exponent >>>= 1;
+        }
+        return result;
+    }
+
+    private static Rope wrap(Node node) {
+        return node == null || node.length() == 0 ? EMPTY : new Rope(node);
+    }
+
+    private static void forEachLeaf(Node node, StringBuilder sb) {
+        if (node instanceof Concat concat) {
+            forEachLeaf(concat.left, sb);
+            forEachLeaf(concat.right, sb);
+        } else {
+            sb.append(((Leaf) node).text);
+        }
+    }
+
+    private static void checkIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Índice " + index + " fuera de rango para longitud " + length);
+        }
+    }
+
+    private static void checkRange(int start, int end, int length) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Rango [" + start + ", " + end + ") fuera de rango para longitud " + length);
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Árbol AVL de fragmentos
+    // ---------------------------------------------------------------------------------------------
+
+    private abstract static sealed class Node permits Leaf, Concat {
+        // Hash en caché, calculado la primera vez que se pide (mismo criterio que String)
+        private int hash;
+        private boolean hashIsZero;
+
+        abstract int length();
+
+        abstract int height();
+
+        abstract int computeHash();
+
+        final boolean hasHash() {
+            return hash != 0 || hashIsZero;
+        }
+
+        final int hash() {
+            int h = hash;
+            if (h == 0 && !hashIsZero) {
+                h = computeHash();
+                if (h == 0) {
+                    hashIsZero = true;
+                } else {
+                    hash = h;
+                }
+            }
+            return h;
+        }
+    }
+
+    private static final class Leaf extends Node {
+        private final String text;
+
+        Leaf(String text) {
+            this.text = text;
+        }
+
+        @Override
+        int length() { return text.length(); }
+
+        @Override
+        int height() { return 0; }
+
+        @Override
+        int computeHash() { return text.hashCode(); }
+    }
+
+    private static final class Concat extends Node {
+        private final Node left;
+        private final Node right;
+        private final int length;
+        private final int height;
+
+        Concat(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+            this.length = left.length() + right.length();
+            this.height = 1 + Math.max(left.height(), right.height());
+        }
+
+        @Override
+        int length() { return length; }
+
+        @Override
+        int height() { return height; }
+
+        // hash(izquierda + derecha) = hash(izquierda) * 31^|derecha| + hash(derecha)
+        @Override
+        int computeHash() { return left.hash() * pow31(right.length()) + right.hash(); }
+    }
+
+    private static int height(Node node) {
+        return node == null ? -1 : node.height();
+    }
+
+    // Divide el árbol en [0, index) y [index, length); cualquiera de los dos puede ser null
+    private static Node[] split(Node node, int index) {
+        if (node == null) return new Node[]{null, null};
+        if (index <= 0) return new Node[]{null, node};
+        if (index >= node.length()) return new Node[]{node, null};
+
+        if (node instanceof Leaf leaf) {
+            return new Node[]{new Leaf(leaf.text.substring(0, index)), new Leaf(leaf.text.substring(index))};
+        }
+
+        Concat concat = (Concat) node;
+        int leftLength = concat.left.length();
+        if (index < leftLength) {
+            Node[] parts = split(concat.left, index);
+            return new Node[]{parts[0], join(parts[1], concat.right)};
+        }
+        if (index > leftLength) {
+            Node[] parts = split(concat.right, index - leftLength);
+            return new Node[]{join(concat.left, parts[0]), parts[1]};
+        }
+        return new Node[]{concat.left, concat.right};
+    }
+
+    // Concatena dos árboles manteniendo la propiedad AVL (diferencia de alturas <= 1)
+    private static Node join(Node left, Node right) {
+        if (left == null || left.length() == 0) return right;
+        if (right == null || right.length() == 0) return left;
+
+        // Fragmentos pequeños contiguos se fusionan para no llenar el árbol de hojas diminutas
+        if (left instanceof Leaf l && right instanceof Leaf r && l.length() + r.length() <= LEAF_MAX) {
+            return new Leaf(l.text + r.text);
+        }
+
+        int lh = left.height();
+        int rh = right.height();
+        if (lh > rh + 1) return joinRight((Concat) left, right);
+        if (rh > lh + 1) return joinLeft(left, (Concat) right);
+        return new Concat(left, right);
+    }
+
+    private static Node joinRight(Concat left, Node right) {
+        Node inner = height(left.right) <= height(right) + 1
+                ? join(left.right, right)
+                : joinRight((Concat) left.right, right);
+        if (inner.height() <= left.left.height() + 1) {
+            return new Concat(left.left, inner);
+        }
+        // inner quedó dos niveles más alto: se rota para recuperar el balance
+        Concat tall = (Concat) inner;
+        if (tall.left.height() > tall.right.height()) {
+            tall = rotateRight(tall);
+        }
+        return rotateLeft(new Concat(left.left, tall));
+    }
+
+    private static Node joinLeft(Node left, Concat right) {
+        Node inner = height(right.left) <= height(left) + 1
+                ? join(left, right.left)
+                : joinLeft(left, (Concat) right.left);
+        if (inner.height() <= right.right.height() + 1) {
+            return new Concat(inner, right.right);
+        }
+        Concat tall = (Concat) inner;
+        if (tall.right.height() > tall.left.height()) {
+            tall = rotateLeft(tall);
+        }
+        return rotateRight(new Concat(tall, right.right));
+    }
+
+    // (a, (b, c)) -> ((a, b), c)
+    private static Concat rotateLeft(Concat node) {
+        Concat right = (Concat) node.right;
+        return new Concat(new Concat(node.left, right.left), right.right);
+    }
+
+    // ((a, b), c) -> (a, (b, c))
+    private static Concat rotateRight(Concat node) {
+        Concat left = (Concat) node.left;
+        return new Concat(left.left, new Concat(left.right, node.right));
+    }
+
+    // Recorre los caracteres hoja por hoja sin aplanar el árbol
+    private static final class LeafCursor {
+        private final Deque<Node> pending = new ArrayDeque<>();
+        private String leaf = "";
+        private int offset;
+
+        LeafCursor(Node root) {
+            pending.push(root);
+        }
+
+        char next() {
+            while (offset >= leaf.length()) {
+                Node node = pending.pop();
+                while (node instanceof Concat concat) {
+                    pending.push(concat.right);
+                    node = concat.left;
+                }
+                leaf = ((Leaf) node).text;
+                offset = 0;
+            }
+            return leaf.charAt(offset++);
+        }
+    }
+
+    // Recorre el árbol hacia adelante o hacia atrás, bajando solo cuando hace falta
+    private static final class LeafWalker {
+        private final Deque<Node> pending = new ArrayDeque<>();
+        private final boolean forward;
+        // Caracteres ya consumidos de la hoja en la cima (desde su inicio o desde su final)
+        private int consumed;
+
+        LeafWalker(Node root, boolean forward) {
+            this.forward = forward;
+            pending.push(root);
+        }
+
+        Node top() { return pending.peek(); }
+        int offset() { return consumed; }
+        int remaining() { return top().length() - consumed; }
+
+        // Reemplaza el nodo de la cima por sus hijos, en el orden del recorrido
+        void descend() {
+            Concat concat = (Concat) pending.pop();
+            pending.push(forward ? concat.right : concat.left);
+            pending.push(forward ? concat.left : concat.right);
+        }
+
+        void skip() {
+            pending.pop();
+            consumed = 0;
+        }
+
+        void advance(int count) {
+            consumed += count;
+            if (consumed >= top().length()) skip();
+        }
+
+        // Posición relativa del primer carácter distinto en los próximos n caracteres, o -1
+        int mismatch(LeafWalker other, int n) {
+            String leaf = ((Leaf) top()).text;
+            String otherLeaf = ((Leaf) other.top()).text;
+            // Dos hojas completas alineadas: String.equals compara por bloques, regionMatches carácter a carácter
+            if (consumed == 0 && other.consumed == 0 && n == leaf.length() && n == otherLeaf.length()
+                    && leaf.equals(otherLeaf)) {
+                return -1;
+            }
+            if (forward) {
+                if (leaf.regionMatches(consumed, otherLeaf, other.consumed, n)) return -1;
+                for (int i = 0; i < n; i++) {
+                    if (leaf.charAt(consumed + i) != otherLeaf.charAt(other.consumed + i)) return i;
+                }
+            } else {
+                int end = leaf.length() - consumed;
+                int otherEnd = otherLeaf.length() - other.consumed;
+                if (leaf.regionMatches(end - n, otherLeaf, otherEnd - n, n)) return -1;
+                for (int i = 0; i < n; i++) {
+                    if (leaf.charAt(end - 1 - i) != otherLeaf.charAt(otherEnd - 1 - i)) return i;
+                }
+            }
+            return -1;
+        }
+    }
+}